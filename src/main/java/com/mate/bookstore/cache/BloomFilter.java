@@ -0,0 +1,89 @@
+package com.mate.bookstore.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter over strings. {@link #mightContain} never returns
+ * {@code false} for a value that was added; it may return {@code true} for one that
+ * was not, at roughly the false positive rate the filter was sized for.
+ */
+public class BloomFilter {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        }
+        long insertions = Math.max(1, expectedInsertions);
+        long optimalBits = (long) Math.ceil(
+                -insertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (optimalBits + 63) / 64));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = wordCount * 64L;
+        this.hashCount = Math.max(1,
+                (int) Math.round((double) bitCount / insertions * Math.log(2)));
+    }
+
+    public void put(String value) {
+        long hash = hash(value);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = bitIndex(first, second, i);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = bitIndex(first, second, i);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitCount() {
+        return bitCount;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    private long bitIndex(int first, int second, int i) {
+        long combined = first + (long) i * second;
+        if (combined < 0) {
+            combined = ~combined;
+        }
+        return combined % bitCount;
+    }
+
+    private static long hash(String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,222 @@
+package com.mate.bookstore.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Size-bounded in-memory cache whose entries expire after a fixed time to
+ * live or at an explicit instant. Keys are spread over independently locked
+ * segments, each evicting its least recently used entry when full, so
+ * concurrent readers of different keys rarely contend. Invalidating a key bumps
+ * its generation, so a load that started before the invalidation is not cached.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of cached values
+ */
+public class ExpiringCache<K, V> {
+    private static final int MAX_SEGMENTS = 16;
+    private static final int GENERATION_SLOTS = 1024;
+
+    private final Segment<K, V>[] segments;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_SLOTS);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public ExpiringCache(int maximumSize, Duration ttl) {
+        this(maximumSize, ttl, Clock.systemUTC());
+    }
+
+    @SuppressWarnings("unchecked")
+    public ExpiringCache(int maximumSize, Duration ttl, Clock clock) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be positive");
+        }
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        int segmentCount = Integer.highestOneBit(Math.min(MAX_SEGMENTS, maximumSize));
+        int segmentCapacity = (maximumSize + segmentCount - 1) / segmentCount;
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(segmentCapacity, evictions);
+        }
+    }
+
+    /**
+     * Returns the cached value, or {@code null} if it is absent or expired.
+     */
+    public V get(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        long now = clock.millis();
+        synchronized (segment) {
+            CacheEntry<V> entry = segment.get(key);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            if (entry.expiresAt() <= now) {
+                segment.remove(key);
+                expirations.increment();
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value();
+        }
+    }
+
+    /**
+     * Returns the cached value or loads, caches and returns it. Values for
+     * which the loader returns {@code null} are not cached, and neither are
+     * values whose key was invalidated while the loader ran.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value == null) {
+            long generation = generation(key);
+            value = loader.apply(key);
+            if (value != null) {
+                putIfNotInvalidated(key, value, generation);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns the key's current generation, to be passed to
+     * {@link #putIfNotInvalidated} once a value read after this call is loaded.
+     * Keys share a bounded number of generations, so an invalidation of another
+     * key can occasionally skip a put, but never lets a stale one through.
+     */
+    public long generation(K key) {
+        return generations.get(generationSlot(key));
+    }
+
+    /**
+     * Caches the value unless the key was invalidated since {@code generation}
+     * was read. Returns whether the value was cached.
+     */
+    public boolean putIfNotInvalidated(K key, V value, long generation) {
+        long expiresAt = clock.millis() + ttlMillis;
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            if (generations.get(generationSlot(key)) != generation) {
+                return false;
+            }
+            segment.put(key, new CacheEntry<>(value, expiresAt));
+        }
+        puts.increment();
+        return true;
+    }
+
+    public void put(K key, V value) {
+        put(key, value, clock.millis() + ttlMillis);
+    }
+
+    /**
+     * Caches the value until the given epoch millisecond or the default time
+     * to live, whichever comes first.
+     */
+    public void put(K key, V value, long expiresAtMillis) {
+        long expiresAt = Math.min(expiresAtMillis, clock.millis() + ttlMillis);
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, new CacheEntry<>(value, expiresAt));
+        }
+        puts.increment();
+    }
+
+    public void invalidate(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            generations.incrementAndGet(generationSlot(key));
+            segment.remove(key);
+        }
+    }
+
+    public void invalidateAll() {
+        for (int i = 0; i < GENERATION_SLOTS; i++) {
+            generations.incrementAndGet(i);
+        }
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long putCount() {
+        return puts.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    public long expirationCount() {
+        return expirations.sum();
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        return segments[spread(key) & (segments.length - 1)];
+    }
+
+    private int generationSlot(K key) {
+        return spread(key) & (GENERATION_SLOTS - 1);
+    }
+
+    private static int spread(Object key) {
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private record CacheEntry<V>(V value, long expiresAt) {
+    }
+
+    private static class Segment<K, V> extends LinkedHashMap<K, CacheEntry<V>> {
+        private final int capacity;
+        private final LongAdder evictions;
+
+        Segment(int capacity, LongAdder evictions) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
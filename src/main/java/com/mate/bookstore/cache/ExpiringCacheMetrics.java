@@ -0,0 +1,55 @@
+package com.mate.bookstore.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+import java.util.List;
+
+/**
+ * Publishes the standard {@code cache.*} meters for an {@link ExpiringCache}.
+ */
+public class ExpiringCacheMetrics extends CacheMeterBinder<ExpiringCache<?, ?>> {
+    public ExpiringCacheMetrics(ExpiringCache<?, ?> cache, String cacheName) {
+        super(cache, cacheName, List.<Tag>of());
+    }
+
+    @Override
+    protected Long size() {
+        ExpiringCache<?, ?> cache = getCache();
+        return cache == null ? null : cache.size();
+    }
+
+    @Override
+    protected long hitCount() {
+        ExpiringCache<?, ?> cache = getCache();
+        return cache == null ? 0 : cache.hitCount();
+    }
+
+    @Override
+    protected Long missCount() {
+        ExpiringCache<?, ?> cache = getCache();
+        return cache == null ? null : cache.missCount();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        ExpiringCache<?, ?> cache = getCache();
+        return cache == null ? null : cache.evictionCount();
+    }
+
+    @Override
+    protected long putCount() {
+        ExpiringCache<?, ?> cache = getCache();
+        return cache == null ? 0 : cache.putCount();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        FunctionCounter.builder("cache.expirations", getCache(),
+                        cache -> cache == null ? 0 : cache.expirationCount())
+                .tags(getTagsWithCacheName())
+                .description("The number of entries removed because their time to live passed")
+                .register(registry);
+    }
+}
@@ -0,0 +1,57 @@
+package com.mate.bookstore.cache;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Remembers ids that were recently looked up and not found, so repeated
+ * requests for them can be answered without a database round-trip.
+ * Entries expire with the backing cache's time to live and must be
+ * invalidated when an entity with the id is created.
+ */
+public class NegativeLookupCache {
+    private final ExpiringCache<Key, Boolean> missingIds;
+
+    public NegativeLookupCache(ExpiringCache<Key, Boolean> missingIds) {
+        this.missingIds = missingIds;
+    }
+
+    public boolean isMissing(EntityType type, Long id) {
+        return missingIds.get(new Key(type, id)) != null;
+    }
+
+    public void markMissing(EntityType type, Long id) {
+        missingIds.put(new Key(type, id), Boolean.TRUE);
+    }
+
+    public void invalidate(EntityType type, Long id) {
+        missingIds.invalidate(new Key(type, id));
+    }
+
+    /**
+     * Invalidates the id now and, when called inside a transaction, once more
+     * after it commits, so a lookup racing with the insert cannot leave a
+     * stale entry behind.
+     */
+    public void invalidateAfterCommit(EntityType type, Long id) {
+        invalidate(type, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            invalidate(type, id);
+                        }
+                    });
+        }
+    }
+
+    public enum EntityType {
+        BOOK,
+        CATEGORY,
+        ORDER
+    }
+
+    public record Key(EntityType type, Long id) {
+    }
+}
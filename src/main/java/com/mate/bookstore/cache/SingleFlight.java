@@ -0,0 +1,98 @@
+package com.mate.bookstore.cache;
+
+import com.mate.bookstore.exception.LoadTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent loads of the same key. The first caller runs the
+ * loader in its own thread; callers arriving while it is in flight wait for
+ * and share its result or failure instead of running the loader again.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of loaded values
+ */
+public class SingleFlight<K, V> {
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Duration timeout;
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    public SingleFlight(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Runs the loader for the key unless a load for it is already running,
+     * in which case waits up to the configured timeout for that load.
+     *
+     * @throws LoadTimeoutException if the shared load does not finish in time
+     */
+    public V load(K key, Function<? super K, ? extends V> loader) {
+        CompletableFuture<V> ownFuture = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, ownFuture);
+        if (existing != null) {
+            coalesced.increment();
+            return await(key, existing);
+        }
+        loads.increment();
+        try {
+            V value = loader.apply(key);
+            ownFuture.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            ownFuture.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, ownFuture);
+        }
+    }
+
+    /**
+     * Lets callers arriving from now on start a new load instead of joining
+     * the one in flight, e.g. after the key's data changed.
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    public long loadCount() {
+        return loads.sum();
+    }
+
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    public long timeoutCount() {
+        return timeouts.sum();
+    }
+
+    private V await(K key, CompletableFuture<V> future) {
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            throw new LoadTimeoutException("Timed out waiting for concurrent load of " + key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LoadTimeoutException("Interrupted waiting for concurrent load of " + key);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.mate.bookstore.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Publishes how many loads a {@link SingleFlight} ran and how many it saved.
+ */
+public class SingleFlightMetrics implements MeterBinder {
+    private final SingleFlight<?, ?> singleFlight;
+    private final String name;
+
+    public SingleFlightMetrics(SingleFlight<?, ?> singleFlight, String name) {
+        this.singleFlight = singleFlight;
+        this.name = name;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("singleflight.loads", singleFlight, SingleFlight::loadCount)
+                .tag("name", name)
+                .description("Loads executed by the first caller for a key")
+                .register(registry);
+        FunctionCounter.builder("singleflight.coalesced", singleFlight,
+                        SingleFlight::coalescedCount)
+                .tag("name", name)
+                .description("Loads saved by joining a load already in flight")
+                .register(registry);
+        FunctionCounter.builder("singleflight.timeouts", singleFlight,
+                        SingleFlight::timeoutCount)
+                .tag("name", name)
+                .description("Callers that gave up waiting for a load in flight")
+                .register(registry);
+    }
+}
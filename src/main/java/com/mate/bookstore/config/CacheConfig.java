@@ -0,0 +1,88 @@
+package com.mate.bookstore.config;
+
+import com.mate.bookstore.cache.ExpiringCache;
+import com.mate.bookstore.cache.ExpiringCacheMetrics;
+import com.mate.bookstore.cache.NegativeLookupCache;
+import com.mate.bookstore.cache.SingleFlight;
+import com.mate.bookstore.cache.SingleFlightMetrics;
+import com.mate.bookstore.dto.book.BookDto;
+import com.mate.bookstore.dto.category.CategoryDto;
+import com.mate.bookstore.dto.order.OrderDto;
+import com.mate.bookstore.security.VerifiedToken;
+import com.mate.bookstore.service.order.OrderIdempotencyService.RequestKey;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CacheConfig {
+    @Bean
+    public ExpiringCache<Long, BookDto> bookCache(
+            @Value("${book.cache.max-size:10000}") int maxSize,
+            @Value("${book.cache.ttl:PT10M}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        ExpiringCache<Long, BookDto> cache = new ExpiringCache<>(maxSize, ttl);
+        new ExpiringCacheMetrics(cache, "books").bindTo(meterRegistry);
+        return cache;
+    }
+
+    @Bean
+    public SingleFlight<Long, BookDto> bookLoads(
+            @Value("${cache.single-flight.timeout:PT5S}") Duration timeout,
+            MeterRegistry meterRegistry) {
+        SingleFlight<Long, BookDto> singleFlight = new SingleFlight<>(timeout);
+        new SingleFlightMetrics(singleFlight, "books").bindTo(meterRegistry);
+        return singleFlight;
+    }
+
+    @Bean
+    public SingleFlight<Long, CategoryDto> categoryLoads(
+            @Value("${cache.single-flight.timeout:PT5S}") Duration timeout,
+            MeterRegistry meterRegistry) {
+        SingleFlight<Long, CategoryDto> singleFlight = new SingleFlight<>(timeout);
+        new SingleFlightMetrics(singleFlight, "categories").bindTo(meterRegistry);
+        return singleFlight;
+    }
+
+    @Bean
+    public NegativeLookupCache negativeLookupCache(
+            @Value("${cache.negative.max-size:100000}") int maxSize,
+            @Value("${cache.negative.ttl:PT30S}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        ExpiringCache<NegativeLookupCache.Key, Boolean> missingIds =
+                new ExpiringCache<>(maxSize, ttl);
+        new ExpiringCacheMetrics(missingIds, "negative-lookups").bindTo(meterRegistry);
+        return new NegativeLookupCache(missingIds);
+    }
+
+    @Bean
+    public ExpiringCache<String, VerifiedToken> verifiedTokenCache(
+            @Value("${jwt.cache.max-size:100000}") int maxSize,
+            @Value("${jwt.cache.ttl:PT24H}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        ExpiringCache<String, VerifiedToken> cache = new ExpiringCache<>(maxSize, ttl);
+        new ExpiringCacheMetrics(cache, "verified-tokens").bindTo(meterRegistry);
+        return cache;
+    }
+
+    @Bean
+    public ExpiringCache<RequestKey, OrderDto> idempotentOrderCache(
+            @Value("${orders.idempotency.cache-size:10000}") int maxSize,
+            @Value("${orders.idempotency.ttl:P1D}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        ExpiringCache<RequestKey, OrderDto> cache = new ExpiringCache<>(maxSize, ttl);
+        new ExpiringCacheMetrics(cache, "idempotent-orders").bindTo(meterRegistry);
+        return cache;
+    }
+
+    @Bean
+    public SingleFlight<RequestKey, OrderDto> idempotentOrderLoads(
+            @Value("${orders.idempotency.wait-timeout:PT30S}") Duration timeout,
+            MeterRegistry meterRegistry) {
+        SingleFlight<RequestKey, OrderDto> singleFlight = new SingleFlight<>(timeout);
+        new SingleFlightMetrics(singleFlight, "idempotent-orders").bindTo(meterRegistry);
+        return singleFlight;
+    }
+}
@@ -30,7 +30,7 @@ public class SpringSecurity {
         return http.cors(AbstractHttpConfigurer::disable)
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/api/auth/**", "/error",
+                        .requestMatchers("/api/auth/**", "/api/cart/guest/**", "/error",
                                 "/swagger-ui/**", "/v3/api-docs/**")
                         .permitAll()
                         .anyRequest()
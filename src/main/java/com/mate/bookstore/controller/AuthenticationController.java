@@ -9,9 +9,11 @@ import com.mate.bookstore.security.AuthenticationService;
 import com.mate.bookstore.service.user.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
@@ -25,8 +27,16 @@ public class AuthenticationController implements AuthenticationApi {
 
     @PostMapping("/login")
     @ResponseStatus(HttpStatus.OK)
-    public UserLoginResponseDto login(@RequestBody UserLoginRequestDto request) {
-        return authenticationService.authenticate(request);
+    public UserLoginResponseDto login(@RequestBody UserLoginRequestDto request,
+                                      @RequestHeader(value = GuestCartController.GUEST_CART_HEADER,
+                                              required = false) String guestCartToken) {
+        return authenticationService.authenticate(request, guestCartToken);
+    }
+
+    @PostMapping("/logout")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        authenticationService.logout(authorization);
     }
 
     @PostMapping("/registration")
@@ -4,6 +4,7 @@ import com.mate.bookstore.controller.openapi.BookApi;
 import com.mate.bookstore.dto.book.BookDto;
 import com.mate.bookstore.dto.book.BookSearchParametersDto;
 import com.mate.bookstore.dto.book.CreateBookRequestDto;
+import com.mate.bookstore.dto.book.CursorPageDto;
 import com.mate.bookstore.dto.book.UpdateBookRequestDto;
 import com.mate.bookstore.service.book.BookService;
 import jakarta.validation.Valid;
@@ -21,6 +22,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -37,6 +39,13 @@ public class BookController implements BookApi {
         return bookService.findAll(pageable);
     }
 
+    @GetMapping("/scroll")
+    @ResponseStatus(HttpStatus.OK)
+    public CursorPageDto<BookDto> scrollAll(@RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "10") int size) {
+        return bookService.scrollAll(cursor, size);
+    }
+
     @GetMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
     public BookDto getBookById(@PathVariable Long id) {
@@ -72,4 +81,12 @@ public class BookController implements BookApi {
         return bookService.searchBooks(searchParameters, pageable);
     }
 
+    @GetMapping("/full-text-search")
+    @ResponseStatus(HttpStatus.OK)
+    public Page<BookDto> fullTextSearch(@RequestParam String query,
+                                        @PageableDefault(page = 0, size = 10)
+                                        Pageable pageable) {
+        return bookService.fullTextSearch(query, pageable);
+    }
+
 }
@@ -2,6 +2,7 @@ package com.mate.bookstore.controller;
 
 import com.mate.bookstore.controller.openapi.CategoryApi;
 import com.mate.bookstore.dto.book.BookDtoWithoutCategoryIds;
+import com.mate.bookstore.dto.book.CursorPageDto;
 import com.mate.bookstore.dto.category.CategoryDto;
 import com.mate.bookstore.dto.category.CreateCategoryRequestDto;
 import com.mate.bookstore.dto.category.UpdateCategoryRequestDto;
@@ -22,6 +23,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -72,4 +74,11 @@ public class CategoryController implements CategoryApi {
             sort = "title", direction = Sort.Direction.ASC) Pageable pageable) {
         return bookService.findAllByCategoryId(id, pageable);
     }
+
+    @GetMapping("/{id}/books/scroll")
+    public CursorPageDto<BookDtoWithoutCategoryIds> scrollBooksByCategoryId(
+            @PathVariable Long id, @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return bookService.scrollAllByCategoryId(id, cursor, size);
+    }
 }
@@ -0,0 +1,48 @@
+package com.mate.bookstore.controller;
+
+import com.mate.bookstore.dto.shoppingcart.AddToCartRequestDto;
+import com.mate.bookstore.dto.shoppingcart.GuestCartDto;
+import com.mate.bookstore.service.shoppingcart.guest.GuestCartService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/cart/guest")
+public class GuestCartController {
+    public static final String GUEST_CART_HEADER = "X-Guest-Cart";
+    private final GuestCartService guestCartService;
+
+    @GetMapping
+    @ResponseStatus(HttpStatus.OK)
+    public GuestCartDto getGuestCart(
+            @RequestHeader(value = GUEST_CART_HEADER, required = false) String token) {
+        return guestCartService.getGuestCart(token);
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public GuestCartDto addBookToGuestCart(
+            @RequestHeader(value = GUEST_CART_HEADER, required = false) String token,
+            @Valid @RequestBody AddToCartRequestDto addToCartRequestDto) {
+        return guestCartService.addBookToGuestCart(token, addToCartRequestDto);
+    }
+
+    @DeleteMapping("/books/{bookId}")
+    @ResponseStatus(HttpStatus.OK)
+    public GuestCartDto removeBookFromGuestCart(
+            @RequestHeader(value = GUEST_CART_HEADER, required = false) String token,
+            @PathVariable("bookId") Long bookId) {
+        return guestCartService.removeBookFromGuestCart(token, bookId);
+    }
+}
@@ -0,0 +1,37 @@
+package com.mate.bookstore.controller;
+
+import com.mate.bookstore.dto.inventory.StockDto;
+import com.mate.bookstore.dto.inventory.UpdateStockRequestDto;
+import com.mate.bookstore.service.inventory.InventoryService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/inventory/books")
+public class InventoryController {
+    private final InventoryService inventoryService;
+
+    @GetMapping("/{bookId}")
+    @ResponseStatus(HttpStatus.OK)
+    public StockDto getStock(@PathVariable("bookId") Long bookId) {
+        return inventoryService.getStock(bookId);
+    }
+
+    @PutMapping("/{bookId}")
+    @ResponseStatus(HttpStatus.OK)
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public StockDto setStock(@PathVariable("bookId") Long bookId,
+                             @Valid @RequestBody UpdateStockRequestDto requestDto) {
+        return inventoryService.setStock(bookId, requestDto.quantity());
+    }
+}
@@ -4,16 +4,24 @@ import com.mate.bookstore.controller.openapi.OrderApi;
 import com.mate.bookstore.dto.order.CreateOrderRequestDto;
 import com.mate.bookstore.dto.order.OrderDto;
 import com.mate.bookstore.dto.order.OrderItemDto;
+import com.mate.bookstore.dto.order.OrderRequestDto;
+import com.mate.bookstore.dto.order.OrderStatusUpdateResultDto;
+import com.mate.bookstore.dto.order.OrderSummaryDto;
 import com.mate.bookstore.dto.order.UpdateOrderStatusRequestDto;
+import com.mate.bookstore.dto.order.UpdateOrderStatusesRequestDto;
 import com.mate.bookstore.model.User;
+import com.mate.bookstore.service.order.OrderIdempotencyService;
 import com.mate.bookstore.service.order.OrderService;
+import com.mate.bookstore.service.order.request.OrderRequestService;
 import jakarta.validation.Valid;
+import java.net.URI;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -21,15 +29,20 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/orders")
 public class OrderController implements OrderApi {
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
     private final OrderService orderService;
+    private final OrderIdempotencyService orderIdempotencyService;
+    private final OrderRequestService orderRequestService;
 
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
@@ -39,11 +52,43 @@ public class OrderController implements OrderApi {
 
     }
 
+    @GetMapping("summaries")
+    @ResponseStatus(HttpStatus.OK)
+    public Page<OrderSummaryDto> getOrderSummaries(@AuthenticationPrincipal User user,
+                                                   @PageableDefault(page = 0, size = 10)
+                                                   Pageable pageable) {
+        return orderService.findSummaries(user, pageable);
+    }
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public OrderDto createOrder(@RequestBody @Valid CreateOrderRequestDto requestDto,
+                                @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false)
+                                String idempotencyKey,
                                 @AuthenticationPrincipal User user) {
-        return orderService.createOrder(requestDto, user);
+        if (idempotencyKey == null) {
+            return orderService.createOrder(requestDto, user);
+        }
+        return orderIdempotencyService.createOrder(requestDto, user, idempotencyKey);
+    }
+
+    @PostMapping("requests")
+    public ResponseEntity<OrderRequestDto> submitOrderRequest(
+            @RequestBody @Valid CreateOrderRequestDto requestDto,
+            @AuthenticationPrincipal User user) {
+        OrderRequestDto orderRequest = orderRequestService.submit(requestDto, user);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(orderRequest.id())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(orderRequest);
+    }
+
+    @GetMapping("requests/{id}")
+    @ResponseStatus(HttpStatus.OK)
+    public OrderRequestDto getOrderRequest(@PathVariable Long id,
+                                           @AuthenticationPrincipal User user) {
+        return orderRequestService.findById(id, user);
     }
 
     @PatchMapping("{id}")
@@ -54,6 +99,14 @@ public class OrderController implements OrderApi {
         return orderService.updateOrderStatus(id, requestDto);
     }
 
+    @PostMapping("status:batch")
+    @ResponseStatus(HttpStatus.OK)
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public List<OrderStatusUpdateResultDto> updateOrderStatuses(
+            @RequestBody @Valid UpdateOrderStatusesRequestDto requestDto) {
+        return orderService.updateOrderStatuses(requestDto);
+    }
+
     @GetMapping("{orderId}/items")
     @ResponseStatus(HttpStatus.OK)
     public List<OrderItemDto> getOrderItems(@PathVariable Long orderId,
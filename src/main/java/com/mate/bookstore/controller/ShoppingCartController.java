@@ -1,6 +1,7 @@
 package com.mate.bookstore.controller;
 
 import com.mate.bookstore.dto.shoppingcart.AddToCartRequestDto;
+import com.mate.bookstore.dto.shoppingcart.CartBatchRequestDto;
 import com.mate.bookstore.dto.shoppingcart.ShoppingCartDto;
 import com.mate.bookstore.dto.shoppingcart.UpdateCartItemRequestDto;
 import com.mate.bookstore.model.User;
@@ -39,6 +40,14 @@ public class ShoppingCartController {
         return shoppingCartService.addBookToShoppingCart(user, addToCartRequestDto);
     }
 
+    @PostMapping("/items:batch")
+    @ResponseStatus(HttpStatus.OK)
+    public ShoppingCartDto applyBatch(@AuthenticationPrincipal User user,
+                                      @Valid @RequestBody
+                                      CartBatchRequestDto cartBatchRequestDto) {
+        return shoppingCartService.applyBatch(user, cartBatchRequestDto);
+    }
+
     @PutMapping("/cart-items/{cartItemId}")
     @ResponseStatus(HttpStatus.OK)
     public ShoppingCartDto updateQuantity(@PathVariable("cartItemId") Long cartItemId,
@@ -5,6 +5,7 @@ import com.mate.bookstore.dto.user.UserLoginRequestDto;
 import com.mate.bookstore.dto.user.UserLoginResponseDto;
 import com.mate.bookstore.dto.user.UserRegistrationRequestDto;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -16,7 +17,9 @@ import jakarta.validation.Valid;
 @Tag(name = "Authentication API",
         description = "Endpoints for user authentication and registration")
 public interface AuthenticationApi {
-    @Operation(summary = "Login user", description = "Authenticates a user and returns a JWT token")
+    @Operation(summary = "Login user", description = "Authenticates a user and returns a JWT "
+            + "token. A guest cart passed in the X-Guest-Cart header is merged into the "
+            + "user's shopping cart")
     @ApiResponse(responseCode = "200", description = "User authenticated successfully")
     @ApiResponse(responseCode = "401", description = "Invalid credentials")
     @RequestBody(
@@ -38,7 +41,15 @@ public interface AuthenticationApi {
                     }
             )
     )
-    UserLoginResponseDto login(@RequestBody UserLoginRequestDto request);
+    UserLoginResponseDto login(@RequestBody UserLoginRequestDto request,
+                               @Parameter(description = "Guest cart token to merge")
+                               String guestCartToken);
+
+    @Operation(summary = "Logout user",
+            description = "Revokes the bearer token so it is rejected before it expires")
+    @ApiResponse(responseCode = "204", description = "Token revoked")
+    @ApiResponse(responseCode = "401", description = "Missing, invalid or expired token")
+    void logout(@Parameter(hidden = true) String authorization);
 
     @Operation(summary = "Register new user",
             description = "Registers a new user and returns user details")
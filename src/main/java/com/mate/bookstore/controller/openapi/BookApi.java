@@ -3,6 +3,7 @@ package com.mate.bookstore.controller.openapi;
 import com.mate.bookstore.dto.book.BookDto;
 import com.mate.bookstore.dto.book.BookSearchParametersDto;
 import com.mate.bookstore.dto.book.CreateBookRequestDto;
+import com.mate.bookstore.dto.book.CursorPageDto;
 import com.mate.bookstore.dto.book.UpdateBookRequestDto;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -23,6 +24,15 @@ public interface BookApi {
     @ApiResponse(responseCode = "200", description = "Books retrieved successfully")
     Page<BookDto> getAll(@Parameter(description = "Pagination information") Pageable pageable);
 
+    @Operation(summary = "Scroll through all books",
+            description = "Returns the next slice of books ordered by title, "
+                    + "starting after the given cursor")
+    @ApiResponse(responseCode = "200", description = "Books retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    CursorPageDto<BookDto> scrollAll(
+            @Parameter(description = "Cursor returned by the previous slice") String cursor,
+            @Parameter(description = "Maximum number of books to return") int size);
+
     @Operation(summary = "Get a book by ID", description = "Returns a book by its ID")
     @ApiResponse(responseCode = "200", description = "Book found",
             content = @Content(mediaType = "application/json",
@@ -59,4 +69,14 @@ public interface BookApi {
     Page<BookDto> searchBooks(@Parameter(description = "Search parameters")
                               BookSearchParametersDto searchParameters,
                               @Parameter(description = "Pagination information") Pageable pageable);
+
+    @Operation(summary = "Full-text search",
+            description = "Ranked search over titles, authors and descriptions. "
+                    + "Every term also matches words it is a prefix of")
+    @ApiResponse(responseCode = "200", description = "Books found",
+            content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = BookDto.class)))
+    Page<BookDto> fullTextSearch(@Parameter(description = "Free text query") String query,
+                                 @Parameter(description = "Pagination information")
+                                 Pageable pageable);
 }
@@ -1,6 +1,7 @@
 package com.mate.bookstore.controller.openapi;
 
 import com.mate.bookstore.dto.book.BookDtoWithoutCategoryIds;
+import com.mate.bookstore.dto.book.CursorPageDto;
 import com.mate.bookstore.dto.category.CategoryDto;
 import com.mate.bookstore.dto.category.CreateCategoryRequestDto;
 import com.mate.bookstore.dto.category.UpdateCategoryRequestDto;
@@ -68,4 +69,14 @@ public interface CategoryApi {
     Page<BookDtoWithoutCategoryIds> getBooksByCategoryId(
             @Parameter(description = "ID of the category") @PathVariable Long id,
             @Parameter(description = "Pagination info") Pageable pageable);
+
+    @Operation(summary = "Scroll through books by category ID",
+            description = "Returns the next slice of books in a category ordered by title, "
+                    + "starting after the given cursor")
+    @ApiResponse(responseCode = "200", description = "Books retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    CursorPageDto<BookDtoWithoutCategoryIds> scrollBooksByCategoryId(
+            @Parameter(description = "ID of the category") @PathVariable Long id,
+            @Parameter(description = "Cursor returned by the previous slice") String cursor,
+            @Parameter(description = "Maximum number of books to return") int size);
 }
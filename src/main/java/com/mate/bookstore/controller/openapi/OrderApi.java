@@ -3,7 +3,11 @@ package com.mate.bookstore.controller.openapi;
 import com.mate.bookstore.dto.order.CreateOrderRequestDto;
 import com.mate.bookstore.dto.order.OrderDto;
 import com.mate.bookstore.dto.order.OrderItemDto;
+import com.mate.bookstore.dto.order.OrderRequestDto;
+import com.mate.bookstore.dto.order.OrderStatusUpdateResultDto;
+import com.mate.bookstore.dto.order.OrderSummaryDto;
 import com.mate.bookstore.dto.order.UpdateOrderStatusRequestDto;
+import com.mate.bookstore.dto.order.UpdateOrderStatusesRequestDto;
 import com.mate.bookstore.model.User;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -17,6 +21,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -34,11 +39,23 @@ public interface OrderApi {
     Page<OrderDto> getOrders(@Parameter(hidden = true) @AuthenticationPrincipal User user,
                              @Parameter(description = "Pagination info") Pageable pageable);
 
+    @Operation(summary = "Get order summaries for the authenticated user",
+            description = "Returns date, status, total and item count of each order "
+                    + "without its items")
+    @ApiResponse(responseCode = "200", description = "Order summaries returned successfully")
+    @GetMapping("summaries")
+    Page<OrderSummaryDto> getOrderSummaries(
+            @Parameter(hidden = true) @AuthenticationPrincipal User user,
+            @Parameter(description = "Pagination info") Pageable pageable);
+
     @Operation(summary = "Create a new order from the shopping cart")
     @ApiResponses({
             @ApiResponse(responseCode = "201", description = "Order created successfully"),
-            @ApiResponse(responseCode = "400", description = "Shopping cart is empty"),
-            @ApiResponse(responseCode = "404", description = "Shopping cart not found")
+            @ApiResponse(responseCode = "400",
+                    description = "Shopping cart is empty or idempotency key is invalid"),
+            @ApiResponse(responseCode = "404", description = "Shopping cart not found"),
+            @ApiResponse(responseCode = "503",
+                    description = "Timed out waiting for a request with the same key")
     })
     @PostMapping
     @RequestBody(
@@ -61,11 +78,39 @@ public interface OrderApi {
     )
     OrderDto createOrder(
             @RequestBody CreateOrderRequestDto requestDto,
+            @Parameter(description = "Client-generated key; retries with the same key "
+                    + "return the first response instead of creating another order")
+            String idempotencyKey,
+            @Parameter(hidden = true) @AuthenticationPrincipal User user);
+
+    @Operation(summary = "Queue an order from the shopping cart",
+            description = "Moves the cart contents into a request that is processed "
+                    + "asynchronously and returns the status URL in the Location header")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Order request accepted"),
+            @ApiResponse(responseCode = "400",
+                    description = "Invalid shipping address or empty shopping cart")
+    })
+    @PostMapping("requests")
+    ResponseEntity<OrderRequestDto> submitOrderRequest(
+            @RequestBody CreateOrderRequestDto requestDto,
+            @Parameter(hidden = true) @AuthenticationPrincipal User user);
+
+    @Operation(summary = "Get the status of a queued order request")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Order request returned"),
+            @ApiResponse(responseCode = "404", description = "Order request not found")
+    })
+    @GetMapping("requests/{id}")
+    OrderRequestDto getOrderRequest(
+            @PathVariable Long id,
             @Parameter(hidden = true) @AuthenticationPrincipal User user);
 
     @Operation(summary = "Update the status of an order")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Order status updated successfully"),
+            @ApiResponse(responseCode = "400",
+                    description = "The order can't move from its status to the new one"),
             @ApiResponse(responseCode = "404", description = "Order not found")
     })
     @PatchMapping("{id}")
@@ -73,6 +118,17 @@ public interface OrderApi {
             @PathVariable Long id,
             @RequestBody UpdateOrderStatusRequestDto requestDto);
 
+    @Operation(summary = "Move many orders from one status to another",
+            description = "Only orders currently in fromStatus are updated; the result "
+                    + "lists the outcome and current status for every id")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Outcome for every order"),
+            @ApiResponse(responseCode = "400", description = "Transition not allowed")
+    })
+    @PostMapping("status:batch")
+    List<OrderStatusUpdateResultDto> updateOrderStatuses(
+            @RequestBody UpdateOrderStatusesRequestDto requestDto);
+
     @Operation(summary = "Get all items for a specific order")
     @ApiResponses({
             @ApiResponse(responseCode = "200",
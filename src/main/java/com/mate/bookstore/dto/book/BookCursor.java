@@ -0,0 +1,37 @@
+package com.mate.bookstore.dto.book;
+
+import com.mate.bookstore.exception.InvalidCursorException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in the title-ordered book listing, exchanged with clients as an
+ * opaque URL-safe string.
+ *
+ * @param title the title of the last book returned
+ * @param id the id of the last book returned, used as a tie-breaker
+ */
+public record BookCursor(String title, Long id) {
+    private static final char SEPARATOR = '\n';
+
+    public String encode() {
+        String raw = id + String.valueOf(SEPARATOR) + title;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BookCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor),
+                    StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 1) {
+                throw new InvalidCursorException(cursor);
+            }
+            return new BookCursor(raw.substring(separator + 1),
+                    Long.valueOf(raw.substring(0, separator)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+}
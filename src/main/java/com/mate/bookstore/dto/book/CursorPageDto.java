@@ -0,0 +1,6 @@
+package com.mate.bookstore.dto.book;
+
+import java.util.List;
+
+public record CursorPageDto<T>(List<T> content, String nextCursor, boolean hasNext) {
+}
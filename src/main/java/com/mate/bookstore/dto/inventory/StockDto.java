@@ -0,0 +1,8 @@
+package com.mate.bookstore.dto.inventory;
+
+/**
+ * Available stock of a book; {@code available} is {@code null} when the book's stock
+ * is not tracked and checkouts are never limited.
+ */
+public record StockDto(Long bookId, Long available) {
+}
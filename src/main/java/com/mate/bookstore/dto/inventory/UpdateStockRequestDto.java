@@ -0,0 +1,7 @@
+package com.mate.bookstore.dto.inventory;
+
+import jakarta.validation.constraints.Min;
+
+public record UpdateStockRequestDto(@Min(value = 0,
+        message = "Quantity cannot be negative") int quantity) {
+}
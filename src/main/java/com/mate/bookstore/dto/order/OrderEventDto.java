@@ -0,0 +1,15 @@
+package com.mate.bookstore.dto.order;
+
+import com.mate.bookstore.model.OrderEvent;
+import com.mate.bookstore.model.OrderStatus;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record OrderEventDto(Long id,
+                            Long orderId,
+                            Long userId,
+                            OrderEvent.Type type,
+                            OrderStatus status,
+                            BigDecimal total,
+                            Instant occurredAt) {
+}
@@ -0,0 +1,11 @@
+package com.mate.bookstore.dto.order;
+
+import com.mate.bookstore.model.OrderRequest;
+import java.time.Instant;
+
+public record OrderRequestDto(Long id,
+                              OrderRequest.Status status,
+                              Long orderId,
+                              String error,
+                              Instant createdAt) {
+}
@@ -0,0 +1,17 @@
+package com.mate.bookstore.dto.order;
+
+import com.mate.bookstore.model.OrderStatus;
+
+/**
+ * Outcome for one order of a bulk status update. {@code currentStatus} is the status
+ * the order has after the update, or {@code null} when it doesn't exist.
+ */
+public record OrderStatusUpdateResultDto(Long orderId,
+                                         Outcome outcome,
+                                         OrderStatus currentStatus) {
+    public enum Outcome {
+        UPDATED,
+        STATUS_MISMATCH,
+        NOT_FOUND
+    }
+}
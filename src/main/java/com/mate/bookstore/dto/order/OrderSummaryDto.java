@@ -0,0 +1,12 @@
+package com.mate.bookstore.dto.order;
+
+import com.mate.bookstore.model.OrderStatus;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record OrderSummaryDto(Long id,
+                              LocalDateTime orderDate,
+                              OrderStatus status,
+                              BigDecimal total,
+                              int itemCount) {
+}
@@ -0,0 +1,22 @@
+package com.mate.bookstore.dto.order;
+
+import com.mate.bookstore.model.OrderStatus;
+import com.mate.bookstore.validation.EnumValidator;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public record UpdateOrderStatusesRequestDto(@NotEmpty(message = "Order ids are required")
+                                            @Size(max = 1000, message =
+                                                    "At most 1000 orders per request")
+                                            List<@NotNull Long> orderIds,
+                                            @NotNull(message = "Current status is required")
+                                            @EnumValidator(enumClass = OrderStatus.class,
+                                                    message = "Invalid order status")
+                                            String fromStatus,
+                                            @NotNull(message = "Order status is required")
+                                            @EnumValidator(enumClass = OrderStatus.class,
+                                                    message = "Invalid order status")
+                                            String status) {
+}
@@ -0,0 +1,11 @@
+package com.mate.bookstore.dto.shoppingcart;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public record CartBatchRequestDto(@NotEmpty(message = "Operations cannot be empty")
+                                  @Size(max = 100, message = "At most 100 operations allowed")
+                                  List<@Valid CartItemOperationDto> operations) {
+}
@@ -0,0 +1,36 @@
+package com.mate.bookstore.dto.shoppingcart;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * One operation of a batch cart request. {@code ADD} takes a book id and a quantity,
+ * {@code UPDATE} a cart item id and the quantity to add to it, {@code REMOVE} a cart
+ * item id.
+ */
+public record CartItemOperationDto(@NotNull(message = "Operation type is required")
+                                   CartItemOperationType type,
+                                   Long bookId,
+                                   Long cartItemId,
+                                   @Min(value = 1, message = "Quantity must be at least 1")
+                                   Integer quantity) {
+    @AssertTrue(message = "ADD needs bookId and quantity, UPDATE needs cartItemId and "
+            + "quantity, REMOVE needs cartItemId")
+    public boolean isComplete() {
+        if (type == null) {
+            return true;
+        }
+        return switch (type) {
+            case ADD -> bookId != null && quantity != null;
+            case UPDATE -> cartItemId != null && quantity != null;
+            case REMOVE -> cartItemId != null;
+        };
+    }
+
+    public enum CartItemOperationType {
+        ADD,
+        UPDATE,
+        REMOVE
+    }
+}
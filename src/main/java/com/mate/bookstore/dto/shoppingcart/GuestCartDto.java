@@ -0,0 +1,11 @@
+package com.mate.bookstore.dto.shoppingcart;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * A guest cart and the signed token holding it. The client sends the token back in the
+ * {@code X-Guest-Cart} header on every guest cart request and on login.
+ */
+public record GuestCartDto(String token, List<GuestCartItemDto> cartItems, BigDecimal total) {
+}
@@ -0,0 +1,4 @@
+package com.mate.bookstore.dto.shoppingcart;
+
+public record GuestCartItemDto(Long bookId, String bookTitle, int quantity) {
+}
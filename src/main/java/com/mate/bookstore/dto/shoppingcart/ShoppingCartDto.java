@@ -1,6 +1,7 @@
 package com.mate.bookstore.dto.shoppingcart;
 
 import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
 import java.util.Set;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -17,4 +18,5 @@ public class ShoppingCartDto {
     @NotNull(message = "User ID is required")
     private Long userId;
     private Set<CartItemDto> cartItems;
+    private BigDecimal total;
 }
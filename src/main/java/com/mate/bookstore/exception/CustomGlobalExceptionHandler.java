@@ -38,7 +38,9 @@ public class CustomGlobalExceptionHandler extends ResponseEntityExceptionHandler
         return new ResponseEntity<>(responseBody, headers, status);
     }
 
-    @ExceptionHandler({ShoppingCartEmptyException.class})
+    @ExceptionHandler({ShoppingCartEmptyException.class, InvalidCursorException.class,
+            GuestCartLimitExceededException.class, InvalidIdempotencyKeyException.class,
+            InvalidStatusTransitionException.class})
     public ResponseEntity<Object> handleBadRequestException(RuntimeException ex) {
         return buildResponseEntity(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
@@ -59,11 +61,17 @@ public class CustomGlobalExceptionHandler extends ResponseEntityExceptionHandler
         return buildResponseEntity(HttpStatus.NOT_FOUND, ex.getMessage());
     }
 
-    @ExceptionHandler({DuplicateIsbnException.class, RegistrationException.class})
+    @ExceptionHandler({DuplicateIsbnException.class, RegistrationException.class,
+            InsufficientStockException.class})
     public ResponseEntity<Object> handleConflictExceptions(RuntimeException ex) {
         return buildResponseEntity(HttpStatus.CONFLICT, ex.getMessage());
     }
 
+    @ExceptionHandler({LoadTimeoutException.class})
+    public ResponseEntity<Object> handleServiceUnavailableException(RuntimeException ex) {
+        return buildResponseEntity(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+    }
+
     private ResponseEntity<Object> buildResponseEntity(HttpStatus status, Object error) {
         Map<String, Object> responseBody = new HashMap<>();
         responseBody.put("timestamp", LocalDateTime.now());
@@ -0,0 +1,7 @@
+package com.mate.bookstore.exception;
+
+public class GuestCartLimitExceededException extends RuntimeException {
+    public GuestCartLimitExceededException(int maxBooks) {
+        super("Guest cart can hold at most " + maxBooks + " different books");
+    }
+}
@@ -0,0 +1,7 @@
+package com.mate.bookstore.exception;
+
+public class InsufficientStockException extends RuntimeException {
+    public InsufficientStockException(Long bookId, int requested) {
+        super("Not enough stock for book " + bookId + " to reserve " + requested);
+    }
+}
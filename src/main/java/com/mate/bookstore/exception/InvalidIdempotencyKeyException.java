@@ -0,0 +1,7 @@
+package com.mate.bookstore.exception;
+
+public class InvalidIdempotencyKeyException extends RuntimeException {
+    public InvalidIdempotencyKeyException(int maxLength) {
+        super("Idempotency-Key must be between 1 and " + maxLength + " characters");
+    }
+}
@@ -0,0 +1,9 @@
+package com.mate.bookstore.exception;
+
+import com.mate.bookstore.model.OrderStatus;
+
+public class InvalidStatusTransitionException extends RuntimeException {
+    public InvalidStatusTransitionException(OrderStatus from, OrderStatus to) {
+        super("Orders can't move from " + from + " to " + to);
+    }
+}
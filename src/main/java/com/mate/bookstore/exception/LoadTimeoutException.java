@@ -0,0 +1,7 @@
+package com.mate.bookstore.exception;
+
+public class LoadTimeoutException extends RuntimeException {
+    public LoadTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -5,6 +5,7 @@ public class JwtExceptionMessages {
     public static final String INVALID_TOKEN_FORMAT = "Invalid token format";
     public static final String TOKEN_VALIDATION_FAILED = "Token validation failed";
     public static final String INVALID_TOKEN = "Invalid token";
+    public static final String TOKEN_REVOKED = "Token revoked";
 
     private JwtExceptionMessages() {
     }
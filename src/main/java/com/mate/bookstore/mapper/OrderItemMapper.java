@@ -5,6 +5,8 @@ import com.mate.bookstore.dto.order.OrderItemDto;
 import com.mate.bookstore.model.CartItem;
 import com.mate.bookstore.model.Order;
 import com.mate.bookstore.model.OrderItem;
+import com.mate.bookstore.repository.order.OrderItemOwnerRow;
+import com.mate.bookstore.repository.order.OrderItemRow;
 import java.math.BigDecimal;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -17,4 +19,8 @@ public interface OrderItemMapper {
 
     @Mapping(target = "bookId", source = "book.id")
     OrderItemDto toOrderItemDto(OrderItem orderItem);
+
+    OrderItemDto toOrderItemDto(OrderItemRow orderItemRow);
+
+    OrderItemDto toOrderItemDto(OrderItemOwnerRow orderItemOwnerRow);
 }
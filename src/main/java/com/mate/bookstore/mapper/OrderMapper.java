@@ -2,7 +2,9 @@ package com.mate.bookstore.mapper;
 
 import com.mate.bookstore.config.MapperConfig;
 import com.mate.bookstore.dto.order.OrderDto;
+import com.mate.bookstore.dto.order.OrderRequestDto;
 import com.mate.bookstore.model.Order;
+import com.mate.bookstore.model.OrderRequest;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -10,4 +12,10 @@ import org.mapstruct.Mapping;
 public interface OrderMapper {
     @Mapping(target = "userId", source = "user.id")
     OrderDto toOrderDto(Order order);
+
+    @Mapping(target = "userId", source = "user.id")
+    @Mapping(target = "orderItems", ignore = true)
+    OrderDto toOrderDtoWithoutItems(Order order);
+
+    OrderRequestDto toOrderRequestDto(OrderRequest orderRequest);
 }
@@ -1,14 +1,34 @@
 package com.mate.bookstore.mapper;
 
 import com.mate.bookstore.config.MapperConfig;
+import com.mate.bookstore.dto.shoppingcart.CartItemDto;
 import com.mate.bookstore.dto.shoppingcart.ShoppingCartDto;
-import com.mate.bookstore.model.ShoppingCart;
+import com.mate.bookstore.repository.shoppingcart.CartItemRow;
+import java.math.BigDecimal;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
-@Mapper(config = MapperConfig.class, uses = CartItemMapper.class)
+@Mapper(config = MapperConfig.class)
 public interface ShoppingCartMapper {
-    @Mapping(target = "userId", source = "user.id")
-    ShoppingCartDto toDto(ShoppingCart shoppingCart);
+    @Mapping(target = "id", source = "cartItemId")
+    CartItemDto toCartItemDto(CartItemRow row);
 
+    default ShoppingCartDto toDto(List<CartItemRow> rows) {
+        CartItemRow cart = rows.get(0);
+        Set<CartItemDto> cartItems = new LinkedHashSet<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (CartItemRow row : rows) {
+            if (row.cartItemId() == null) {
+                continue;
+            }
+            cartItems.add(toCartItemDto(row));
+            if (row.bookPrice() != null) {
+                total = total.add(row.bookPrice().multiply(BigDecimal.valueOf(row.quantity())));
+            }
+        }
+        return new ShoppingCartDto(cart.shoppingCartId(), cart.userId(), cartItems, total);
+    }
 }
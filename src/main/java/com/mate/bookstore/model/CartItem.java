@@ -7,23 +7,30 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.Min;
+import java.time.Instant;
 import java.util.Objects;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.UpdateTimestamp;
 
 @Entity
 @Setter
 @Getter
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "cart_items")
+@Table(name = "cart_items", uniqueConstraints = @UniqueConstraint(
+        name = "uk_cart_items_shopping_cart_book", columnNames = {"shopping_cart_id", "book_id"}))
 public class CartItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_items_seq")
+    @SequenceGenerator(name = "cart_items_seq", sequenceName = "cart_items_seq",
+            allocationSize = 50)
     private Long id;
     @ManyToOne(optional = false)
     @JoinColumn(name = "shopping_cart_id")
@@ -34,6 +41,9 @@ public class CartItem {
     @Column(nullable = false)
     @Min(value = 1, message = "Quantity must be at least 1")
     private int quantity;
+    @UpdateTimestamp
+    @Column(name = "last_modified", nullable = false)
+    private Instant lastModified;
 
     @Override
     public boolean equals(Object o) {
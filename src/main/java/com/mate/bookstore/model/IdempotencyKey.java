@@ -0,0 +1,58 @@
+package com.mate.bookstore.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.Instant;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * An {@code Idempotency-Key} a user sent with a checkout. The order id and response
+ * stay empty while the first request is still running; the claim token identifies
+ * the request currently allowed to complete it.
+ */
+@Entity
+@Setter
+@Getter
+@NoArgsConstructor
+@Table(name = "idempotency_keys", uniqueConstraints = @UniqueConstraint(
+        name = "uk_idempotency_keys_user_key", columnNames = {"user_id", "idempotency_key"}))
+public class IdempotencyKey {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    @Column(name = "idempotency_key", nullable = false)
+    private String idempotencyKey;
+    @Column(name = "claim_token", length = 64)
+    private String claimToken;
+    @Column(name = "order_id")
+    private Long orderId;
+    @Lob
+    private String response;
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    public IdempotencyKey(Long userId, String idempotencyKey, String claimToken,
+                          Instant createdAt, Instant expiresAt) {
+        this.userId = userId;
+        this.idempotencyKey = idempotencyKey;
+        this.claimToken = claimToken;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isCompleted() {
+        return orderId != null;
+    }
+}
@@ -0,0 +1,27 @@
+package com.mate.bookstore.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One slice of a book's available stock. Spreading stock over several rows lets
+ * concurrent checkouts of the same book lock different rows.
+ */
+@Entity
+@Setter
+@Getter
+@Table(name = "inventory_stripes")
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryStripe {
+    @EmbeddedId
+    private InventoryStripeId id;
+    @Column(nullable = false)
+    private int quantity;
+}
@@ -0,0 +1,23 @@
+package com.mate.bookstore.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Embeddable
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class InventoryStripeId implements Serializable {
+    @Column(name = "book_id", nullable = false)
+    private Long bookId;
+    @Column(name = "stripe", nullable = false)
+    private int stripe;
+}
@@ -0,0 +1,58 @@
+package com.mate.bookstore.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.math.BigDecimal;
+import java.time.Instant;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * An order change written to the outbox in the transaction that made it. Rows are
+ * deleted once the relay has handed them to the sink.
+ */
+@Entity
+@Setter
+@Getter
+@NoArgsConstructor
+@Table(name = "order_events")
+public class OrderEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Type type;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus status;
+    @Column(nullable = false)
+    private BigDecimal total;
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+
+    public OrderEvent(Order order, Type type, Instant occurredAt) {
+        this.orderId = order.getId();
+        this.userId = order.getUser().getId();
+        this.type = type;
+        this.status = order.getStatus();
+        this.total = order.getTotal();
+        this.occurredAt = occurredAt;
+    }
+
+    public enum Type {
+        CREATED,
+        STATUS_CHANGED
+    }
+}
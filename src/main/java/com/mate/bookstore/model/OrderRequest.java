@@ -0,0 +1,74 @@
+package com.mate.bookstore.model;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+/**
+ * A checkout accepted for asynchronous processing, with the cart contents it was
+ * accepted with. Workers claim pending requests for a limited time with a claim token
+ * and turn them into orders. A request that failed on a transient error goes back to
+ * pending and is not claimed again before its next attempt is due.
+ */
+@Entity
+@Setter
+@Getter
+@NoArgsConstructor
+@Table(name = "order_requests")
+public class OrderRequest {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    @Column(name = "shipping_address", nullable = false)
+    private String shippingAddress;
+    @ElementCollection
+    @CollectionTable(name = "order_request_items",
+            joinColumns = @JoinColumn(name = "order_request_id"))
+    private Set<OrderRequestItem> items = new HashSet<>();
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status = Status.PENDING;
+    @Column(name = "order_id")
+    private Long orderId;
+    private String error;
+    @Column(name = "claim_token", length = 64)
+    private String claimToken;
+    @Column(name = "claimed_until")
+    private Instant claimedUntil;
+    @Column(nullable = false)
+    private int attempts;
+    @Column(name = "next_attempt_at")
+    private Instant nextAttemptAt;
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    public OrderRequest(Long userId, String shippingAddress) {
+        this.userId = userId;
+        this.shippingAddress = shippingAddress;
+    }
+
+    public enum Status {
+        PENDING,
+        PROCESSING,
+        COMPLETED,
+        FAILED
+    }
+}
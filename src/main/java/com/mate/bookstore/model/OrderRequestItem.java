@@ -0,0 +1,25 @@
+package com.mate.bookstore.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A book and quantity from the cart as it was when an {@link OrderRequest} was queued.
+ */
+@Embeddable
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class OrderRequestItem {
+    @Column(name = "book_id", nullable = false)
+    private Long bookId;
+    @Column(nullable = false)
+    private int quantity;
+}
@@ -1,5 +1,14 @@
 package com.mate.bookstore.model;
 
 public enum OrderStatus {
-    PENDING, PROCESSING, SHIPPED, DELIVERED, CANCELLED
+    PENDING, PROCESSING, SHIPPED, DELIVERED, CANCELLED;
+
+    public boolean canTransitionTo(OrderStatus next) {
+        return switch (this) {
+            case PENDING -> next == PROCESSING || next == CANCELLED;
+            case PROCESSING -> next == SHIPPED || next == CANCELLED;
+            case SHIPPED -> next == DELIVERED;
+            case DELIVERED, CANCELLED -> false;
+        };
+    }
 }
@@ -0,0 +1,27 @@
+package com.mate.bookstore.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Setter
+@Getter
+@Table(name = "revoked_tokens")
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+    @Id
+    @Column(name = "token_id", nullable = false, length = 64)
+    private String tokenId;
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+    @Column(name = "revoked_at", nullable = false)
+    private Instant revokedAt;
+}
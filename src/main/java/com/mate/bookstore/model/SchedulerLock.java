@@ -0,0 +1,27 @@
+package com.mate.bookstore.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Setter
+@Getter
+@Table(name = "scheduler_locks")
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchedulerLock {
+    @Id
+    @Column(name = "name", nullable = false, length = 64)
+    private String name;
+    @Column(name = "locked_until", nullable = false)
+    private Instant lockedUntil;
+    @Column(name = "locked_by", nullable = false)
+    private String lockedBy;
+}
@@ -0,0 +1,55 @@
+package com.mate.bookstore.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Quantity an order took from one inventory stripe, kept so a cancelled order can
+ * give it back to the same stripe.
+ */
+@Entity
+@Setter
+@Getter
+@NoArgsConstructor
+@Table(name = "stock_reservations")
+public class StockReservation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_reservations_seq")
+    @SequenceGenerator(name = "stock_reservations_seq", sequenceName = "stock_reservations_seq",
+            allocationSize = 50)
+    private Long id;
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+    @Column(name = "book_id", nullable = false)
+    private Long bookId;
+    @Column(nullable = false)
+    private int stripe;
+    @Column(nullable = false)
+    private int quantity;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status = Status.RESERVED;
+
+    public StockReservation(Long orderId, Long bookId, int stripe, int quantity) {
+        this.orderId = orderId;
+        this.bookId = bookId;
+        this.stripe = stripe;
+        this.quantity = quantity;
+    }
+
+    public enum Status {
+        RESERVED,
+        COMMITTED,
+        RELEASED
+    }
+}
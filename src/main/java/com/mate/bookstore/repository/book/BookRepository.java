@@ -1,9 +1,12 @@
 package com.mate.bookstore.repository.book;
 
 import com.mate.bookstore.model.Book;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
@@ -11,16 +14,40 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 public interface BookRepository extends JpaRepository<Book, Long>,
-        JpaSpecificationExecutor<Book> {
+        JpaSpecificationExecutor<Book>, BookRepositoryCustom {
 
     boolean existsByIsbn(String isbn);
 
     @Query("SELECT b FROM Book b JOIN b.categories c WHERE c.id = :categoryId")
     Page<Book> findAllByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
 
+    @Query("SELECT b.id FROM Book b ORDER BY b.title, b.id")
+    List<Long> findFirstIds(Limit limit);
+
+    @Query("SELECT b.id FROM Book b "
+            + "WHERE b.title > :title OR (b.title = :title AND b.id > :id) "
+            + "ORDER BY b.title, b.id")
+    List<Long> findIdsAfter(@Param("title") String title, @Param("id") Long id, Limit limit);
+
+    @Query("SELECT b FROM Book b JOIN b.categories c WHERE c.id = :categoryId "
+            + "ORDER BY b.title, b.id")
+    List<Book> findFirstByCategoryId(@Param("categoryId") Long categoryId, Limit limit);
+
+    @Query("SELECT b FROM Book b JOIN b.categories c WHERE c.id = :categoryId "
+            + "AND (b.title > :title OR (b.title = :title AND b.id > :id)) "
+            + "ORDER BY b.title, b.id")
+    List<Book> findByCategoryIdAfter(@Param("categoryId") Long categoryId,
+                                     @Param("title") String title, @Param("id") Long id,
+                                     Limit limit);
+
+    List<Book> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("SELECT b.id FROM Book b WHERE b.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
     @EntityGraph(attributePaths = {"categories"})
-    Page<Book> findAll(Pageable pageable);
+    Optional<Book> findWithCategoriesById(Long id);
 
     @EntityGraph(attributePaths = {"categories"})
-    Page<Book> findAll(Specification specification, Pageable pageable);
+    List<Book> findAllWithCategoriesByIdIn(Collection<Long> ids);
 }
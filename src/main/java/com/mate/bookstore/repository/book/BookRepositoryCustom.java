@@ -0,0 +1,22 @@
+package com.mate.bookstore.repository.book;
+
+import com.mate.bookstore.model.Book;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Paging queries for books that cannot be expressed with derived queries.
+ */
+public interface BookRepositoryCustom {
+    /**
+     * Returns one page of book ids matching the given specification.
+     * Only the id column is selected, so the database applies LIMIT/OFFSET
+     * directly instead of paging a collection fetch join in memory.
+     *
+     * @param specification the filter to apply, may be {@code null}
+     * @param pageable the page request, including sort
+     * @return the page of matching book ids in the requested order
+     */
+    Page<Long> findIds(Specification<Book> specification, Pageable pageable);
+}
@@ -0,0 +1,67 @@
+package com.mate.bookstore.repository.book;
+
+import com.mate.bookstore.model.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+@RequiredArgsConstructor
+public class BookRepositoryCustomImpl implements BookRepositoryCustom {
+    private static final String ID = "id";
+    private final EntityManager entityManager;
+
+    @Override
+    public Page<Long> findIds(Specification<Book> specification, Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Book> root = query.from(Book.class);
+        query.select(root.get(ID));
+        applySpecification(specification, root, query, criteriaBuilder);
+        query.orderBy(QueryUtils.toOrders(withIdTieBreaker(pageable.getSort()),
+                root, criteriaBuilder));
+
+        TypedQuery<Long> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<Long> ids = typedQuery.getResultList();
+        return PageableExecutionUtils.getPage(ids, pageable, () -> count(specification));
+    }
+
+    private long count(Specification<Book> specification) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Book> root = query.from(Book.class);
+        query.select(criteriaBuilder.count(root));
+        applySpecification(specification, root, query, criteriaBuilder);
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private void applySpecification(Specification<Book> specification, Root<Book> root,
+                                    CriteriaQuery<Long> query,
+                                    CriteriaBuilder criteriaBuilder) {
+        if (specification == null) {
+            return;
+        }
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+
+    private Sort withIdTieBreaker(Sort sort) {
+        return sort.getOrderFor(ID) == null ? sort.and(Sort.by(ID)) : sort;
+    }
+}
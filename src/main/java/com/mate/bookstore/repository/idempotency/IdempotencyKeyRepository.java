@@ -0,0 +1,58 @@
+package com.mate.bookstore.repository.idempotency;
+
+import com.mate.bookstore.model.IdempotencyKey;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
+    @Query("SELECT new com.mate.bookstore.repository.idempotency.IdempotencyKeyState("
+            + "k.id, k.claimToken, k.orderId, k.response, k.createdAt, k.expiresAt) "
+            + "FROM IdempotencyKey k "
+            + "WHERE k.userId = :userId AND k.idempotencyKey = :idempotencyKey")
+    Optional<IdempotencyKeyState> findState(@Param("userId") Long userId,
+                                            @Param("idempotencyKey") String idempotencyKey);
+
+    /**
+     * Takes over a key whose request has been running since before {@code staleBefore},
+     * which means the node running it died or stalled before its order transaction
+     * committed. The new claim token stops the old request from completing the key.
+     *
+     * @return 1 when this caller now owns the key, 0 otherwise
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.createdAt = :now, k.claimToken = :claimToken "
+            + "WHERE k.id = :id AND k.orderId IS NULL AND k.createdAt < :staleBefore")
+    int takeOver(@Param("id") Long id, @Param("claimToken") String claimToken,
+                 @Param("now") Instant now, @Param("staleBefore") Instant staleBefore);
+
+    /**
+     * Stores the order while the claim is still held.
+     *
+     * @return 1 when stored, 0 when another request took the key over
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.orderId = :orderId, k.response = :response "
+            + "WHERE k.id = :id AND k.claimToken = :claimToken AND k.orderId IS NULL")
+    int complete(@Param("id") Long id, @Param("claimToken") String claimToken,
+                 @Param("orderId") Long orderId, @Param("response") String response);
+
+    /**
+     * Frees a key whose request failed, unless another request took it over since.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k "
+            + "WHERE k.id = :id AND k.claimToken = :claimToken AND k.orderId IS NULL")
+    int release(@Param("id") Long id, @Param("claimToken") String claimToken);
+
+    @Query("SELECT k.id FROM IdempotencyKey k WHERE k.expiresAt <= :now ORDER BY k.id")
+    List<Long> findExpiredIds(@Param("now") Instant now, Pageable pageable);
+}
@@ -0,0 +1,19 @@
+package com.mate.bookstore.repository.idempotency;
+
+import java.time.Instant;
+
+/**
+ * The current row of an idempotency key. Being a projection it is not kept in the
+ * persistence context, so every read sees what other requests have committed since.
+ */
+public record IdempotencyKeyState(Long id, String claimToken, Long orderId, String response,
+                                  Instant createdAt, Instant expiresAt) {
+    public boolean isCompleted() {
+        return orderId != null;
+    }
+
+    public IdempotencyKeyState withClaim(String newClaimToken, Instant claimedAt) {
+        return new IdempotencyKeyState(id, newClaimToken, orderId, response, claimedAt,
+                expiresAt);
+    }
+}
@@ -0,0 +1,53 @@
+package com.mate.bookstore.repository.inventory;
+
+import com.mate.bookstore.model.InventoryStripe;
+import com.mate.bookstore.model.InventoryStripeId;
+import jakarta.persistence.LockModeType;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface InventoryStripeRepository
+        extends JpaRepository<InventoryStripe, InventoryStripeId> {
+    @Query("SELECT new com.mate.bookstore.repository.inventory.StripeQuantity("
+            + "s.id.stripe, s.quantity) FROM InventoryStripe s WHERE s.id.bookId = :bookId")
+    List<StripeQuantity> findStripeQuantities(@Param("bookId") Long bookId);
+
+    /**
+     * Reads the book's stripes, locking their rows in stripe order until the
+     * transaction ends.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.mate.bookstore.repository.inventory.StripeQuantity("
+            + "s.id.stripe, s.quantity) FROM InventoryStripe s WHERE s.id.bookId = :bookId "
+            + "ORDER BY s.id.stripe")
+    List<StripeQuantity> lockStripeQuantities(@Param("bookId") Long bookId);
+
+    @Query("SELECT SUM(s.quantity) FROM InventoryStripe s WHERE s.id.bookId = :bookId")
+    Long sumQuantity(@Param("bookId") Long bookId);
+
+    /**
+     * Takes {@code quantity} from the stripe only if it still holds that much.
+     *
+     * @return 1 when the quantity was taken, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE InventoryStripe s SET s.quantity = s.quantity - :quantity "
+            + "WHERE s.id.bookId = :bookId AND s.id.stripe = :stripe "
+            + "AND s.quantity >= :quantity")
+    int take(@Param("bookId") Long bookId, @Param("stripe") int stripe,
+             @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE InventoryStripe s SET s.quantity = s.quantity + :quantity "
+            + "WHERE s.id.bookId = :bookId AND s.id.stripe = :stripe")
+    int giveBack(@Param("bookId") Long bookId, @Param("stripe") int stripe,
+                 @Param("quantity") int quantity);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM InventoryStripe s WHERE s.id.bookId = :bookId")
+    int deleteAllByBookId(@Param("bookId") Long bookId);
+}
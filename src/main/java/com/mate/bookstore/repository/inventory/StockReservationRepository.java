@@ -0,0 +1,21 @@
+package com.mate.bookstore.repository.inventory;
+
+import com.mate.bookstore.model.StockReservation;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+    List<StockReservation> findByOrderIdInAndStatusOrderByBookIdAscStripeAsc(
+            Collection<Long> orderIds, StockReservation.Status status);
+
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.status = :to "
+            + "WHERE r.orderId IN :orderIds AND r.status = :from")
+    int updateStatus(@Param("orderIds") Collection<Long> orderIds,
+                     @Param("from") StockReservation.Status from,
+                     @Param("to") StockReservation.Status to);
+}
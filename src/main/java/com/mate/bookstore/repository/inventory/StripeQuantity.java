@@ -0,0 +1,4 @@
+package com.mate.bookstore.repository.inventory;
+
+public record StripeQuantity(int stripe, int quantity) {
+}
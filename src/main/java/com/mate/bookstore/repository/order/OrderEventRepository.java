@@ -0,0 +1,29 @@
+package com.mate.bookstore.repository.order;
+
+import com.mate.bookstore.dto.order.OrderEventDto;
+import com.mate.bookstore.model.OrderEvent;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface OrderEventRepository extends JpaRepository<OrderEvent, Long> {
+    @Query("SELECT new com.mate.bookstore.dto.order.OrderEventDto(e.id, e.orderId, e.userId, "
+            + "e.type, e.status, e.total, e.occurredAt) FROM OrderEvent e ORDER BY e.id")
+    List<OrderEventDto> findOldest(Pageable pageable);
+
+    /**
+     * Writes a {@code STATUS_CHANGED} event with the current status of every given order
+     * in one statement.
+     */
+    @Modifying
+    @Query("INSERT INTO OrderEvent (orderId, userId, type, status, total, occurredAt) "
+            + "SELECT o.id, o.user.id, com.mate.bookstore.model.OrderEvent.Type.STATUS_CHANGED, "
+            + "o.status, o.total, :occurredAt FROM Order o WHERE o.id IN :orderIds")
+    int insertStatusChanged(@Param("orderIds") Collection<Long> orderIds,
+                            @Param("occurredAt") Instant occurredAt);
+}
@@ -0,0 +1,4 @@
+package com.mate.bookstore.repository.order;
+
+public record OrderItemOwnerRow(Long userId, Long id, Long bookId, int quantity) {
+}
@@ -1,8 +1,22 @@
 package com.mate.bookstore.repository.order;
 
 import com.mate.bookstore.model.OrderItem;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+    @Query("SELECT new com.mate.bookstore.repository.order.OrderItemRow("
+            + "i.order.id, i.id, i.book.id, i.quantity) "
+            + "FROM OrderItem i WHERE i.order.id IN :orderIds ORDER BY i.id")
+    List<OrderItemRow> findRowsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
 
+    @Query("SELECT new com.mate.bookstore.repository.order.OrderItemOwnerRow("
+            + "o.user.id, i.id, i.book.id, i.quantity) "
+            + "FROM OrderItem i JOIN i.order o WHERE i.id = :id AND o.id = :orderId")
+    Optional<OrderItemOwnerRow> findOwnerRowByIdAndOrderId(@Param("id") Long id,
+                                                           @Param("orderId") Long orderId);
 }
@@ -0,0 +1,4 @@
+package com.mate.bookstore.repository.order;
+
+public record OrderItemRow(Long orderId, Long id, Long bookId, int quantity) {
+}
@@ -1,11 +1,45 @@
 package com.mate.bookstore.repository.order;
 
+import com.mate.bookstore.dto.order.OrderSummaryDto;
 import com.mate.bookstore.model.Order;
+import com.mate.bookstore.model.OrderStatus;
 import com.mate.bookstore.model.User;
+import jakarta.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
     Page<Order> findByUser(User user, Pageable pageable);
+
+    @Query("SELECT o.user.id FROM Order o WHERE o.id = :id")
+    Optional<Long> findUserIdById(@Param("id") Long id);
+
+    @Query(value = "SELECT new com.mate.bookstore.dto.order.OrderSummaryDto("
+            + "o.id, o.orderDate, o.status, o.total, o.itemCount) "
+            + "FROM Order o WHERE o.user.id = :userId",
+            countQuery = "SELECT COUNT(o) FROM Order o WHERE o.user.id = :userId")
+    Page<OrderSummaryDto> findSummariesByUserId(@Param("userId") Long userId,
+                                                Pageable pageable);
+
+    /**
+     * Reads the statuses of the orders, locking their rows in id order until the
+     * transaction ends.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.mate.bookstore.repository.order.OrderStatusRow(o.id, o.status) "
+            + "FROM Order o WHERE o.id IN :ids ORDER BY o.id")
+    List<OrderStatusRow> lockStatuses(@Param("ids") Collection<Long> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :to WHERE o.id IN :ids AND o.status = :from")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("from") OrderStatus from,
+                     @Param("to") OrderStatus to);
 }
@@ -0,0 +1,67 @@
+package com.mate.bookstore.repository.order;
+
+import com.mate.bookstore.model.OrderRequest;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface OrderRequestRepository extends JpaRepository<OrderRequest, Long> {
+    Optional<OrderRequest> findByIdAndUserId(Long id, Long userId);
+
+    @EntityGraph(attributePaths = {"items"})
+    List<OrderRequest> findAllWithItemsByIdIn(Collection<Long> ids);
+
+    /**
+     * Locks up to {@code limit} pending requests whose next attempt is due, and processing
+     * ones whose claim has run out, skipping rows another worker has locked.
+     */
+    @Query(value = "SELECT id FROM order_requests WHERE (status = 'PENDING' "
+            + "AND (next_attempt_at IS NULL OR next_attempt_at <= :now)) "
+            + "OR (status = 'PROCESSING' AND claimed_until < :now) "
+            + "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockClaimableIds(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE OrderRequest r SET r.status = 'PROCESSING', r.claimToken = :claimToken, "
+            + "r.claimedUntil = :claimedUntil WHERE r.id IN :ids")
+    int claim(@Param("ids") List<Long> ids, @Param("claimToken") String claimToken,
+              @Param("claimedUntil") Instant claimedUntil);
+
+    /**
+     * Only succeeds while the claim is still held, so a request taken over after its
+     * claim ran out is completed once.
+     */
+    @Modifying
+    @Query("UPDATE OrderRequest r SET r.status = 'COMPLETED', r.orderId = :orderId "
+            + "WHERE r.id = :id AND r.status = 'PROCESSING' AND r.claimToken = :claimToken")
+    int complete(@Param("id") Long id, @Param("claimToken") String claimToken,
+                 @Param("orderId") Long orderId);
+
+    /**
+     * Puts the request back to pending after a transient error, to be claimed again from
+     * {@code nextAttemptAt}, unless the claim was lost meanwhile.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE OrderRequest r SET r.status = 'PENDING', r.attempts = r.attempts + 1, "
+            + "r.nextAttemptAt = :nextAttemptAt, r.error = :error, r.claimToken = NULL, "
+            + "r.claimedUntil = NULL "
+            + "WHERE r.id = :id AND r.status = 'PROCESSING' AND r.claimToken = :claimToken")
+    int retryLater(@Param("id") Long id, @Param("claimToken") String claimToken,
+                   @Param("nextAttemptAt") Instant nextAttemptAt,
+                   @Param("error") String error);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OrderRequest r SET r.status = 'FAILED', r.error = :error "
+            + "WHERE r.id = :id AND r.status = 'PROCESSING' AND r.claimToken = :claimToken")
+    int fail(@Param("id") Long id, @Param("claimToken") String claimToken,
+             @Param("error") String error);
+}
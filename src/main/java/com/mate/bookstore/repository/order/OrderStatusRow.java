@@ -0,0 +1,6 @@
+package com.mate.bookstore.repository.order;
+
+import com.mate.bookstore.model.OrderStatus;
+
+public record OrderStatusRow(Long id, OrderStatus status) {
+}
@@ -0,0 +1,36 @@
+package com.mate.bookstore.repository.scheduling;
+
+import com.mate.bookstore.model.SchedulerLock;
+import java.time.Instant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+    @Transactional
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :until, l.lockedBy = :owner "
+            + "WHERE l.name = :name AND (l.lockedUntil <= :now OR l.lockedBy = :owner)")
+    int acquire(@Param("name") String name, @Param("owner") String owner,
+                @Param("now") Instant now, @Param("until") Instant until);
+
+    /**
+     * Creates the lease row, failing with a constraint violation when another node
+     * created it first.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO scheduler_locks (name, locked_until, locked_by) "
+            + "VALUES (:name, :until, :owner)", nativeQuery = true)
+    void insert(@Param("name") String name, @Param("owner") String owner,
+                @Param("until") Instant until);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :now "
+            + "WHERE l.name = :name AND l.lockedBy = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner,
+                @Param("now") Instant now);
+}
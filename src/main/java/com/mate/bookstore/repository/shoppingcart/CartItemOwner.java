@@ -0,0 +1,4 @@
+package com.mate.bookstore.repository.shoppingcart;
+
+public record CartItemOwner(Long shoppingCartId, Long userId) {
+}
@@ -1,7 +1,43 @@
 package com.mate.bookstore.repository.shoppingcart;
 
 import com.mate.bookstore.model.CartItem;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface CartItemRepository extends JpaRepository<CartItem, Long> {
+public interface CartItemRepository extends JpaRepository<CartItem, Long>,
+        CartItemRepositoryCustom {
+    @Query("SELECT new com.mate.bookstore.repository.shoppingcart.CartItemOwner("
+            + "s.id, s.user.id) FROM CartItem c JOIN c.shoppingCart s WHERE c.id = :id")
+    Optional<CartItemOwner> findOwnerById(@Param("id") Long id);
+
+    @Modifying
+    @Query("DELETE FROM CartItem c WHERE c.shoppingCart.id = :shoppingCartId")
+    int deleteAllByShoppingCartId(@Param("shoppingCartId") Long shoppingCartId);
+
+    @Query("SELECT c.id FROM CartItem c WHERE c.lastModified < :cutoff AND c.id > :afterId "
+            + "ORDER BY c.id")
+    List<Long> findIdsModifiedBefore(@Param("cutoff") Instant cutoff,
+                                     @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Deletes the given items unless they were modified again after the cutoff.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CartItem c WHERE c.id IN :ids AND c.lastModified < :cutoff")
+    int deleteAllByIdInModifiedBefore(@Param("ids") Collection<Long> ids,
+                                      @Param("cutoff") Instant cutoff);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM CartItem c WHERE c.shoppingCart.id = :shoppingCartId AND c.id IN :ids")
+    int deleteAllByShoppingCartIdAndIdIn(@Param("shoppingCartId") Long shoppingCartId,
+                                         @Param("ids") Collection<Long> ids);
 }
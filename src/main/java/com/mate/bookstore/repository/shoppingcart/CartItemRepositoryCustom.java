@@ -0,0 +1,41 @@
+package com.mate.bookstore.repository.shoppingcart;
+
+import java.util.Map;
+
+/**
+ * Cart item writes that have to be a single statement to stay correct under
+ * concurrent requests.
+ */
+public interface CartItemRepositoryCustom {
+    /**
+     * Inserts the book into the cart or, when the cart already holds it, increments
+     * the existing quantity, as one atomic upsert relying on the unique
+     * (shopping_cart_id, book_id) constraint. Like
+     * {@code @Modifying(clearAutomatically = true)}, the persistence context is
+     * cleared afterwards so later reads see the new quantity.
+     *
+     * @param shoppingCartId the cart to add to
+     * @param bookId the book to add
+     * @param quantity the quantity to add, must be positive
+     */
+    void addQuantity(Long shoppingCartId, Long bookId, int quantity);
+
+    /**
+     * Multi-row variant of {@link #addQuantity}: one upsert statement for all books.
+     *
+     * @param shoppingCartId the cart to add to
+     * @param quantitiesByBookId positive quantity to add per book id
+     */
+    void addQuantities(Long shoppingCartId, Map<Long, Integer> quantitiesByBookId);
+
+    /**
+     * Adds to the quantity of several items of one cart in a single update. Items that
+     * are not in the cart are left alone, so callers can compare the returned count
+     * with the number of ids they passed.
+     *
+     * @param shoppingCartId the cart the items must belong to
+     * @param quantitiesByCartItemId quantity to add per cart item id
+     * @return the number of updated items
+     */
+    int incrementQuantities(Long shoppingCartId, Map<Long, Integer> quantitiesByCartItemId);
+}
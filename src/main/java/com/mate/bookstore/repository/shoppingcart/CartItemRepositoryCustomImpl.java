@@ -0,0 +1,84 @@
+package com.mate.bookstore.repository.shoppingcart;
+
+import com.mate.bookstore.model.CartItem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+@RequiredArgsConstructor
+public class CartItemRepositoryCustomImpl implements CartItemRepositoryCustom {
+    private static final String UPSERT_SQL = "INSERT INTO cart_items "
+            + "(id, shopping_cart_id, book_id, quantity, last_modified) VALUES %s "
+            + "ON DUPLICATE KEY UPDATE quantity = quantity + VALUES(quantity), "
+            + "last_modified = VALUES(last_modified)";
+    private static final String INCREMENT_SQL = "UPDATE cart_items "
+            + "SET quantity = quantity + CASE id %s END, last_modified = ? "
+            + "WHERE shopping_cart_id = ? AND id IN (%s)";
+    private final EntityManager entityManager;
+
+    @Override
+    public void addQuantity(Long shoppingCartId, Long bookId, int quantity) {
+        addQuantities(shoppingCartId, Map.of(bookId, quantity));
+    }
+
+    @Override
+    public void addQuantities(Long shoppingCartId, Map<Long, Integer> quantitiesByBookId) {
+        if (quantitiesByBookId.isEmpty()) {
+            return;
+        }
+        String rows = String.join(", ",
+                Collections.nCopies(quantitiesByBookId.size(), "(?, ?, ?, ?, ?)"));
+        Query query = entityManager.createNativeQuery(UPSERT_SQL.formatted(rows));
+        Instant now = Instant.now();
+        int position = 1;
+        for (Map.Entry<Long, Integer> entry : quantitiesByBookId.entrySet()) {
+            query.setParameter(position++, nextId());
+            query.setParameter(position++, shoppingCartId);
+            query.setParameter(position++, entry.getKey());
+            query.setParameter(position++, entry.getValue());
+            query.setParameter(position++, now);
+        }
+        query.executeUpdate();
+        entityManager.clear();
+    }
+
+    @Override
+    public int incrementQuantities(Long shoppingCartId,
+                                   Map<Long, Integer> quantitiesByCartItemId) {
+        if (quantitiesByCartItemId.isEmpty()) {
+            return 0;
+        }
+        int size = quantitiesByCartItemId.size();
+        Query query = entityManager.createNativeQuery(INCREMENT_SQL.formatted(
+                String.join(" ", Collections.nCopies(size, "WHEN ? THEN ?")),
+                String.join(", ", Collections.nCopies(size, "?"))));
+        int position = 1;
+        for (Map.Entry<Long, Integer> entry : quantitiesByCartItemId.entrySet()) {
+            query.setParameter(position++, entry.getKey());
+            query.setParameter(position++, entry.getValue());
+        }
+        query.setParameter(position++, Instant.now());
+        query.setParameter(position++, shoppingCartId);
+        for (Long cartItemId : quantitiesByCartItemId.keySet()) {
+            query.setParameter(position++, cartItemId);
+        }
+        int updated = query.executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+
+    private Object nextId() {
+        SharedSessionContractImplementor session =
+                entityManager.unwrap(SharedSessionContractImplementor.class);
+        IdentifierGenerator generator = (IdentifierGenerator) session.getFactory()
+                .getMappingMetamodel()
+                .getEntityDescriptor(CartItem.class)
+                .getGenerator();
+        return generator.generate(session, null);
+    }
+}
@@ -0,0 +1,15 @@
+package com.mate.bookstore.repository.shoppingcart;
+
+import java.math.BigDecimal;
+
+/**
+ * One row of the cart read model: the cart joined with one of its items and that
+ * item's book. Item and book columns are {@code null} for an empty cart.
+ */
+public record CartItemRow(Long shoppingCartId, Long userId, Long cartItemId, Long bookId,
+                          String bookTitle, Integer quantity, BigDecimal bookPrice) {
+    public CartItemRow withQuantity(Integer quantity) {
+        return new CartItemRow(shoppingCartId, userId, cartItemId, bookId, bookTitle, quantity,
+                bookPrice);
+    }
+}
@@ -1,9 +1,23 @@
 package com.mate.bookstore.repository.shoppingcart;
 
 import com.mate.bookstore.model.ShoppingCart;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface ShoppingCartRepository extends JpaRepository<ShoppingCart, Long> {
+    @EntityGraph(attributePaths = {"cartItems", "cartItems.book"})
     Optional<ShoppingCart> findByUserId(Long userId);
+
+    @Query("SELECT new com.mate.bookstore.repository.shoppingcart.CartItemRow("
+            + "c.id, c.user.id, i.id, b.id, b.title, i.quantity, b.price) "
+            + "FROM ShoppingCart c LEFT JOIN c.cartItems i LEFT JOIN i.book b "
+            + "WHERE c.user.id = :userId ORDER BY i.id")
+    List<CartItemRow> findCartItemRowsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT c.id FROM ShoppingCart c WHERE c.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
 }
@@ -0,0 +1,36 @@
+package com.mate.bookstore.repository.token;
+
+import com.mate.bookstore.model.RevokedToken;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+    @Query("SELECT r.tokenId FROM RevokedToken r WHERE r.expiresAt > :now")
+    List<String> findActiveTokenIds(@Param("now") Instant now);
+
+    @Query("SELECT r.tokenId FROM RevokedToken r "
+            + "WHERE r.revokedAt >= :since AND r.expiresAt > :now")
+    List<String> findActiveTokenIdsRevokedSince(@Param("since") Instant since,
+                                                @Param("now") Instant now);
+
+    /**
+     * Stores a revocation, failing with a constraint violation when the token has
+     * already been revoked.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO revoked_tokens (token_id, expires_at, revoked_at) "
+            + "VALUES (:tokenId, :expiresAt, :revokedAt)", nativeQuery = true)
+    void insert(@Param("tokenId") String tokenId, @Param("expiresAt") Instant expiresAt,
+                @Param("revokedAt") Instant revokedAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
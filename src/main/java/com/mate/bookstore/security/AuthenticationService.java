@@ -1,8 +1,15 @@
 package com.mate.bookstore.security;
 
+import static com.mate.bookstore.exception.message.JwtExceptionMessages.INVALID_TOKEN;
+
 import com.mate.bookstore.dto.user.UserLoginRequestDto;
 import com.mate.bookstore.dto.user.UserLoginResponseDto;
+import com.mate.bookstore.exception.EntityNotFoundException;
+import com.mate.bookstore.model.User;
+import com.mate.bookstore.service.shoppingcart.guest.GuestCartService;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -10,16 +17,42 @@ import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
+@Log4j2
 public class AuthenticationService {
+    private static final String BEARER_PREFIX = "Bearer ";
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
+    private final TokenRevocationService tokenRevocationService;
+    private final GuestCartService guestCartService;
 
-    public UserLoginResponseDto authenticate(UserLoginRequestDto request) {
+    /**
+     * Authenticates the user and, when a guest cart token is given, merges that cart
+     * into the user's shopping cart. An invalid or expired guest cart, or a book deleted
+     * while the merge runs, does not fail the login.
+     */
+    public UserLoginResponseDto authenticate(UserLoginRequestDto request,
+                                             String guestCartToken) {
 
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.email(), request.password())
         );
-        String token = jwtUtil.generateToken(authentication.getName());
+        User user = (User) authentication.getPrincipal();
+        if (guestCartToken != null) {
+            try {
+                guestCartService.mergeIntoShoppingCart(user, guestCartToken);
+            } catch (JwtException | EntityNotFoundException e) {
+                log.warn("Guest cart not merged for user {}: {}", user.getId(), e.getMessage());
+            }
+        }
+        String token = jwtUtil.generateToken(user);
         return new UserLoginResponseDto(token);
     }
+
+    public void logout(String authorizationHeader) {
+        if (authorizationHeader == null || !authorizationHeader.startsWith(BEARER_PREFIX)) {
+            throw new JwtException(INVALID_TOKEN);
+        }
+        VerifiedToken token = jwtUtil.verify(authorizationHeader.substring(BEARER_PREFIX.length()));
+        tokenRevocationService.revoke(token);
+    }
 }
@@ -1,5 +1,7 @@
 package com.mate.bookstore.security;
 
+import static com.mate.bookstore.exception.message.JwtExceptionMessages.TOKEN_REVOKED;
+
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
@@ -29,6 +31,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final String BEARER_PREFIX = "Bearer ";
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -38,9 +41,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String token = getToken(request);
 
         try {
-            if (token != null && jwtUtil.isValidToken(token)) {
-                String name = jwtUtil.getUserName(token);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(name);
+            if (token != null) {
+                VerifiedToken verifiedToken = jwtUtil.verify(token);
+                if (tokenRevocationService.isRevoked(verifiedToken)) {
+                    throw new JwtException(TOKEN_REVOKED);
+                }
+                UserDetails userDetails = verifiedToken.hasUserClaims()
+                        ? verifiedToken.toPrincipal()
+                        : userDetailsService.loadUserByUsername(verifiedToken.subject());
                 Authentication auth = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 SecurityContextHolder.getContext().setAuthentication(auth);
@@ -5,72 +5,215 @@ import static com.mate.bookstore.exception.message.JwtExceptionMessages.INVALID_
 import static com.mate.bookstore.exception.message.JwtExceptionMessages.TOKEN_EXPIRED;
 import static com.mate.bookstore.exception.message.JwtExceptionMessages.TOKEN_VALIDATION_FAILED;
 
+import com.mate.bookstore.cache.ExpiringCache;
+import com.mate.bookstore.model.Role;
+import com.mate.bookstore.model.User;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.RequiredTypeException;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
 import jakarta.annotation.PostConstruct;
 import java.nio.charset.StandardCharsets;
-import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import javax.crypto.SecretKey;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
 @Component
+@RequiredArgsConstructor
 @Log4j2
 public class JwtUtil {
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLES_CLAIM = "roles";
+    private static final String TOKEN_DIGEST_ALGORITHM = "SHA-256";
+    private static final String GUEST_CART_AUDIENCE = "guest-cart";
+    private static final String GUEST_CART_CLAIM = "cart";
     @Value("${jwt.expiration}")
     private long expiration;
+    @Value("${jwt.guest-cart.expiration:2592000000}")
+    private long guestCartExpiration;
     @Value("${jwt.secret}")
     private String secretString;
-    private Key secret;
+    private final ExpiringCache<String, VerifiedToken> verifiedTokenCache;
+    private SecretKey secret;
+    private JwtParser parser;
 
     @PostConstruct
     public void init() {
         this.secret = Keys.hmacShaKeyFor(secretString.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser()
+                .verifyWith(secret)
+                .build();
     }
 
-    public String generateToken(String username) {
+    public String generateToken(User user) {
+        List<String> roles = user.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
         return Jwts.builder()
-                .subject(username)
+                .id(UUID.randomUUID().toString())
+                .subject(user.getUsername())
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(ROLES_CLAIM, roles)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
                 .signWith(secret)
                 .compact();
     }
 
-    public boolean isValidToken(String token) {
-        return !getClaim(token, Claims::getExpiration).before(new Date());
+    /**
+     * Checks the signature and expiry of the token and decodes its claims in a single
+     * parse. Verified tokens are cached by digest until their expiry, so a token seen
+     * before is answered without verifying it again.
+     *
+     * @throws JwtException if the token is expired, malformed or not signed with our key
+     */
+    public VerifiedToken verify(String token) {
+        if (token == null) {
+            throw new JwtException(INVALID_TOKEN);
+        }
+        String digest = digest(token);
+        VerifiedToken cached = verifiedTokenCache.get(digest);
+        if (cached != null) {
+            return cached;
+        }
+        VerifiedToken verified = parse(token, digest);
+        verifiedTokenCache.put(digest, verified, verified.expiration().toEpochMilli());
+        return verified;
     }
 
-    public String getUserName(String token) {
-        return getClaim(token, Claims::getSubject);
+    /**
+     * Signs guest cart contents into a compact token, e.g. {@code "12:2,40:1"} for two
+     * copies of book 12 and one of book 40. Guest cart tokens carry their own audience
+     * and are never accepted as authentication tokens.
+     */
+    public String generateGuestCartToken(Map<Long, Integer> quantitiesByBookId) {
+        String cart = quantitiesByBookId.entrySet().stream()
+                .map(entry -> entry.getKey() + ":" + entry.getValue())
+                .collect(Collectors.joining(","));
+        return Jwts.builder()
+                .audience().add(GUEST_CART_AUDIENCE).and()
+                .claim(GUEST_CART_CLAIM, cart)
+                .expiration(new Date(System.currentTimeMillis() + guestCartExpiration))
+                .signWith(secret)
+                .compact();
+    }
 
+    /**
+     * Verifies a guest cart token and decodes its contents.
+     *
+     * @return quantity per book id, in the order the books were added
+     * @throws JwtException if the token is expired, malformed, not signed with our key
+     *                      or not a guest cart token
+     */
+    public Map<Long, Integer> parseGuestCartToken(String token) {
+        Claims claims = parseClaims(token);
+        if (!isGuestCart(claims)) {
+            throw new JwtException(INVALID_TOKEN);
+        }
+        Map<Long, Integer> quantitiesByBookId = new LinkedHashMap<>();
+        try {
+            String cart = claims.get(GUEST_CART_CLAIM, String.class);
+            for (String item : cart.isEmpty() ? new String[0] : cart.split(",")) {
+                String[] fields = item.split(":");
+                quantitiesByBookId.put(Long.valueOf(fields[0]), Integer.valueOf(fields[1]));
+            }
+        } catch (RuntimeException e) {
+            throw new JwtException(INVALID_TOKEN_FORMAT);
+        }
+        return quantitiesByBookId;
+    }
+
+    private VerifiedToken parse(String token, String digest) {
+        Claims claims = parseClaims(token);
+        Date expiresAt = claims.getExpiration();
+        if (expiresAt == null || isGuestCart(claims)) {
+            throw new JwtException(INVALID_TOKEN);
+        }
+        String tokenId = claims.getId() == null ? digest : claims.getId();
+        try {
+            return new VerifiedToken(tokenId, claims.getSubject(),
+                    toUserId(claims.get(USER_ID_CLAIM, Number.class)),
+                    toRoleNames(claims.get(ROLES_CLAIM, Collection.class)),
+                    expiresAt.toInstant());
+        } catch (IllegalArgumentException | RequiredTypeException e) {
+            throw new JwtException(INVALID_TOKEN);
+        }
     }
 
-    private <T> T getClaim(String token, Function<Claims, T> claimsFunction) {
+    private Claims parseClaims(String token) {
         try {
-            final Claims claims = Jwts.parser()
-                    .setSigningKey(secret)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-            return claimsFunction.apply(claims);
+            return parser.parseSignedClaims(token).getPayload();
         } catch (ExpiredJwtException e) {
             throw new JwtException(TOKEN_EXPIRED);
         } catch (UnsupportedJwtException | MalformedJwtException e) {
             throw new JwtException(INVALID_TOKEN_FORMAT);
         } catch (SignatureException e) {
             throw new JwtException(TOKEN_VALIDATION_FAILED);
-        } catch (IllegalArgumentException e) {
+        } catch (IllegalArgumentException | RequiredTypeException e) {
             throw new JwtException(INVALID_TOKEN);
         }
     }
-}
 
+    public boolean isValidToken(String token) {
+        return verify(token).expiration().isAfter(Instant.now());
+    }
+
+    public String getUserName(String token) {
+        return verify(token).subject();
+    }
+
+    public User getPrincipal(String token) {
+        return verify(token).toPrincipal();
+    }
+
+    private String digest(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance(TOKEN_DIGEST_ALGORITHM);
+            return HexFormat.of().formatHex(
+                    messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(TOKEN_DIGEST_ALGORITHM + " is not available", e);
+        }
+    }
+
+    private Long toUserId(Number userId) {
+        return userId == null ? null : userId.longValue();
+    }
+
+    private Set<Role.RoleName> toRoleNames(Collection<?> roleNames) {
+        if (roleNames == null) {
+            return Set.of();
+        }
+        Set<Role.RoleName> roles = EnumSet.noneOf(Role.RoleName.class);
+        for (Object roleName : roleNames) {
+            roles.add(Role.RoleName.valueOf(String.valueOf(roleName)));
+        }
+        return roles;
+    }
+
+    private boolean isGuestCart(Claims claims) {
+        return claims.getAudience() != null && claims.getAudience().contains(GUEST_CART_AUDIENCE);
+    }
+}
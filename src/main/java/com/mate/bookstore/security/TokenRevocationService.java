@@ -0,0 +1,82 @@
+package com.mate.bookstore.security;
+
+import com.mate.bookstore.cache.BloomFilter;
+import com.mate.bookstore.repository.token.RevokedTokenRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps track of tokens revoked before their expiry. Lookups go through an in-memory
+ * Bloom filter first and only query the {@code revoked_tokens} table when the filter
+ * reports a possible match. The filter is rebuilt from the table periodically, which
+ * is how revocations made on other nodes reach this one.
+ */
+@Service
+@RequiredArgsConstructor
+@Log4j2
+public class TokenRevocationService {
+    private static final long MIN_EXPECTED_REVOCATIONS = 1024;
+    private static final Duration CATCH_UP_OVERLAP = Duration.ofSeconds(5);
+    private final RevokedTokenRepository revokedTokenRepository;
+    @Value("${jwt.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+    private volatile BloomFilter revokedTokens;
+
+    /**
+     * Revoking a token twice, e.g. from concurrent logouts, is not an error.
+     */
+    public void revoke(VerifiedToken token) {
+        try {
+            revokedTokenRepository.insert(token.tokenId(), token.expiration(), Instant.now());
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Token {} was already revoked", token.tokenId());
+        }
+        BloomFilter filter = revokedTokens;
+        if (filter != null) {
+            filter.put(token.tokenId());
+        }
+    }
+
+    /**
+     * Until the filter has been built for the first time every check goes to the table.
+     */
+    public boolean isRevoked(VerifiedToken token) {
+        BloomFilter filter = revokedTokens;
+        if (filter != null && !filter.mightContain(token.tokenId())) {
+            return false;
+        }
+        return revokedTokenRepository.existsById(token.tokenId());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-interval:PT30S}",
+            initialDelayString = "${jwt.revocation.refresh-interval:PT30S}")
+    public void rebuild() {
+        Instant startedAt = Instant.now();
+        final int purged = revokedTokenRepository.deleteExpired(startedAt);
+        List<String> tokenIds = revokedTokenRepository.findActiveTokenIds(startedAt);
+        BloomFilter filter = newFilter(tokenIds.size());
+        tokenIds.forEach(filter::put);
+        revokedTokens = filter;
+        // Local revocations committed after the snapshot may have gone into the old filter
+        revokedTokenRepository.findActiveTokenIdsRevokedSince(
+                        startedAt.minus(CATCH_UP_OVERLAP), Instant.now())
+                .forEach(filter::put);
+        log.debug("Rebuilt token revocation filter with {} tokens, purged {} expired",
+                tokenIds.size(), purged);
+    }
+
+    private BloomFilter newFilter(int revocations) {
+        return new BloomFilter(Math.max(MIN_EXPECTED_REVOCATIONS, revocations * 2L),
+                falsePositiveRate);
+    }
+}
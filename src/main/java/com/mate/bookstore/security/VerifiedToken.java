@@ -0,0 +1,50 @@
+package com.mate.bookstore.security;
+
+import com.mate.bookstore.model.Role;
+import com.mate.bookstore.model.User;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Claims of a token whose signature and expiry have already been checked.
+ *
+ * <p>The principal built by {@link #toPrincipal()} is a detached, id-only {@link User}: only
+ * the id, email and roles are set, every other field (names, shipping address, password) is
+ * {@code null}. It is meant to be used as a reference, e.g. for {@code user.getId()} or as the
+ * owner of a new entity. Code that needs the rest of the user has to load it by id through
+ * {@code UserRepository}.
+ *
+ * @param tokenId the {@code jti} claim, or the token digest for tokens issued without one
+ * @param userId the user id, or {@code null} for tokens issued without user claims
+ */
+public record VerifiedToken(String tokenId, String subject, Long userId,
+                            Set<Role.RoleName> roles, Instant expiration) {
+    public VerifiedToken {
+        roles = Set.copyOf(roles);
+    }
+
+    public boolean hasUserClaims() {
+        return userId != null;
+    }
+
+    /**
+     * Builds the id-only principal described on the class without touching the database.
+     *
+     * @return the principal, or {@code null} for tokens issued without user claims
+     */
+    public User toPrincipal() {
+        if (!hasUserClaims()) {
+            return null;
+        }
+        Set<Role> authorities = new HashSet<>();
+        for (Role.RoleName roleName : roles) {
+            authorities.add(new Role(roleName));
+        }
+        return User.builder()
+                .id(userId)
+                .email(subject)
+                .roles(authorities)
+                .build();
+    }
+}
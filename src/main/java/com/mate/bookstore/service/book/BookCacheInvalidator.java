@@ -0,0 +1,27 @@
+package com.mate.bookstore.service.book;
+
+import com.mate.bookstore.cache.ExpiringCache;
+import com.mate.bookstore.cache.NegativeLookupCache;
+import com.mate.bookstore.cache.NegativeLookupCache.EntityType;
+import com.mate.bookstore.cache.SingleFlight;
+import com.mate.bookstore.dto.book.BookDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class BookCacheInvalidator {
+    private final ExpiringCache<Long, BookDto> bookCache;
+    private final SingleFlight<Long, BookDto> bookLoads;
+    private final NegativeLookupCache negativeLookupCache;
+
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        bookCache.invalidate(event.bookId());
+        bookLoads.forget(event.bookId());
+        if (!event.deleted()) {
+            negativeLookupCache.invalidate(EntityType.BOOK, event.bookId());
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.mate.bookstore.service.book;
+
+import com.mate.bookstore.model.Book;
+
+/**
+ * Published by the book service whenever a book is created, updated or
+ * soft-deleted. Carries the searchable text so listeners do not need to
+ * read the book back from the database.
+ */
+public record BookChangedEvent(Long bookId, String title, String author,
+                               String description, boolean deleted) {
+    public static BookChangedEvent saved(Book book) {
+        return new BookChangedEvent(book.getId(), book.getTitle(), book.getAuthor(),
+                book.getDescription(), false);
+    }
+
+    public static BookChangedEvent deleted(Long bookId) {
+        return new BookChangedEvent(bookId, null, null, null, true);
+    }
+}
@@ -4,8 +4,12 @@ import com.mate.bookstore.dto.book.BookDto;
 import com.mate.bookstore.dto.book.BookDtoWithoutCategoryIds;
 import com.mate.bookstore.dto.book.BookSearchParametersDto;
 import com.mate.bookstore.dto.book.CreateBookRequestDto;
+import com.mate.bookstore.dto.book.CursorPageDto;
 import com.mate.bookstore.dto.book.UpdateBookRequestDto;
 import com.mate.bookstore.model.Book;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -23,7 +27,18 @@ public interface BookService {
     Page<BookDto> searchBooks(BookSearchParametersDto searchParameters,
                               Pageable pageable);
 
+    Page<BookDto> fullTextSearch(String query, Pageable pageable);
+
     Page<BookDtoWithoutCategoryIds> findAllByCategoryId(Long categoryId, Pageable pageable);
 
+    CursorPageDto<BookDto> scrollAll(String cursor, int size);
+
+    CursorPageDto<BookDtoWithoutCategoryIds> scrollAllByCategoryId(Long categoryId,
+                                                                   String cursor, int size);
+
     Book getBookById(Long id);
+
+    Map<Long, Book> getBooksByIds(Collection<Long> ids);
+
+    Set<Long> findExistingIds(Collection<Long> ids);
 }
@@ -1,9 +1,15 @@
 package com.mate.bookstore.service.book;
 
+import com.mate.bookstore.cache.ExpiringCache;
+import com.mate.bookstore.cache.NegativeLookupCache;
+import com.mate.bookstore.cache.NegativeLookupCache.EntityType;
+import com.mate.bookstore.cache.SingleFlight;
+import com.mate.bookstore.dto.book.BookCursor;
 import com.mate.bookstore.dto.book.BookDto;
 import com.mate.bookstore.dto.book.BookDtoWithoutCategoryIds;
 import com.mate.bookstore.dto.book.BookSearchParametersDto;
 import com.mate.bookstore.dto.book.CreateBookRequestDto;
+import com.mate.bookstore.dto.book.CursorPageDto;
 import com.mate.bookstore.dto.book.UpdateBookRequestDto;
 import com.mate.bookstore.exception.DuplicateIsbnException;
 import com.mate.bookstore.exception.EntityNotFoundException;
@@ -11,8 +17,20 @@ import com.mate.bookstore.mapper.BookMapper;
 import com.mate.bookstore.model.Book;
 import com.mate.bookstore.repository.book.BookRepository;
 import com.mate.bookstore.repository.book.BookSpecificationBuilder;
+import com.mate.bookstore.service.book.search.BookSearchIndex;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
@@ -21,9 +39,16 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 @RequiredArgsConstructor
 public class BookServiceImpl implements BookService {
+    private static final int MAX_SCROLL_SIZE = 100;
+    private static final int MAX_FULL_TEXT_RESULTS = 1000;
     private final BookRepository bookRepository;
     private final BookMapper bookMapper;
     private final BookSpecificationBuilder bookSpecificationBuilder;
+    private final BookSearchIndex bookSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExpiringCache<Long, BookDto> bookCache;
+    private final SingleFlight<Long, BookDto> bookLoads;
+    private final NegativeLookupCache negativeLookupCache;
 
     @Override
     @Transactional
@@ -32,19 +57,22 @@ public class BookServiceImpl implements BookService {
 
         Book book = bookMapper.toModel(createBookRequestDto);
         book = bookRepository.save(book);
+        eventPublisher.publishEvent(BookChangedEvent.saved(book));
 
         return bookMapper.toBookDto(book);
     }
 
     @Override
     public Page<BookDto> findAll(Pageable pageable) {
-        return bookRepository.findAll(pageable)
-                .map(bookMapper::toBookDto);
+        return toBookDtoPage(bookRepository.findIds(null, pageable));
     }
 
     @Override
     public BookDto findById(Long id) {
-        return bookMapper.toBookDto(getBookById(id));
+        if (negativeLookupCache.isMissing(EntityType.BOOK, id)) {
+            throw bookNotFound(id);
+        }
+        return bookCache.get(id, key -> bookLoads.load(key, this::loadSnapshot));
     }
 
     @Override
@@ -52,6 +80,7 @@ public class BookServiceImpl implements BookService {
     public void deleteById(Long id) {
         Book book = getBookById(id);
         bookRepository.delete(book);
+        eventPublisher.publishEvent(BookChangedEvent.deleted(id));
     }
 
     @Override
@@ -60,6 +89,7 @@ public class BookServiceImpl implements BookService {
         Book existingBook = getBookById(id);
         bookMapper.updateModel(updateRequestDto, existingBook);
         existingBook = bookRepository.save(existingBook);
+        eventPublisher.publishEvent(BookChangedEvent.saved(existingBook));
         return bookMapper.toBookDto(existingBook);
     }
 
@@ -69,8 +99,19 @@ public class BookServiceImpl implements BookService {
         validateSearchParameters(searchParameters);
 
         Specification<Book> bookSpecification = bookSpecificationBuilder.build(searchParameters);
-        return bookRepository.findAll(bookSpecification, pageable)
-                .map(bookMapper::toBookDto);
+        return toBookDtoPage(bookRepository.findIds(bookSpecification, pageable));
+    }
+
+    @Override
+    public Page<BookDto> fullTextSearch(String query, Pageable pageable) {
+        List<Long> rankedIds = bookSearchIndex.search(query, MAX_FULL_TEXT_RESULTS);
+        int from = (int) Math.min(pageable.getOffset(), rankedIds.size());
+        int to = Math.min(from + pageable.getPageSize(), rankedIds.size());
+        List<BookDto> bookDtos = findAllWithCategoriesInOrder(rankedIds.subList(from, to))
+                .stream()
+                .map(bookMapper::toBookDto)
+                .toList();
+        return new PageImpl<>(bookDtos, pageable, rankedIds.size());
     }
 
     @Override
@@ -79,10 +120,126 @@ public class BookServiceImpl implements BookService {
                 .map(bookMapper::toDtoWithoutCategories);
     }
 
+    @Override
+    public CursorPageDto<BookDto> scrollAll(String cursor, int size) {
+        int pageSize = normalizeScrollSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+        List<Long> ids;
+        if (cursor == null || cursor.isBlank()) {
+            ids = bookRepository.findFirstIds(limit);
+        } else {
+            BookCursor position = BookCursor.decode(cursor);
+            ids = bookRepository.findIdsAfter(position.title(), position.id(), limit);
+        }
+        boolean hasNext = ids.size() > pageSize;
+        List<Book> books = findAllWithCategoriesInOrder(hasNext ? ids.subList(0, pageSize) : ids);
+        return toCursorPage(books, hasNext, bookMapper::toBookDto);
+    }
+
+    @Override
+    public CursorPageDto<BookDtoWithoutCategoryIds> scrollAllByCategoryId(Long categoryId,
+                                                                          String cursor,
+                                                                          int size) {
+        int pageSize = normalizeScrollSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+        List<Book> books;
+        if (cursor == null || cursor.isBlank()) {
+            books = bookRepository.findFirstByCategoryId(categoryId, limit);
+        } else {
+            BookCursor position = BookCursor.decode(cursor);
+            books = bookRepository.findByCategoryIdAfter(categoryId,
+                    position.title(), position.id(), limit);
+        }
+        boolean hasNext = books.size() > pageSize;
+        return toCursorPage(hasNext ? books.subList(0, pageSize) : books, hasNext,
+                bookMapper::toDtoWithoutCategories);
+    }
+
     @Override
     public Book getBookById(Long id) {
-        return bookRepository.findById(id).orElseThrow(
-                () -> new EntityNotFoundException("Book not found with id " + id));
+        findById(id);
+        return bookRepository.getReferenceById(id);
+    }
+
+    @Override
+    public Map<Long, Book> getBooksByIds(Collection<Long> ids) {
+        Map<Long, Book> booksById = bookRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        List<Long> missingIds = ids.stream()
+                .filter(id -> !booksById.containsKey(id))
+                .toList();
+        if (!missingIds.isEmpty()) {
+            throw new EntityNotFoundException("Books not found with ids " + missingIds);
+        }
+        return booksById;
+    }
+
+    /**
+     * Reads from the database rather than the book cache, so callers that go on to
+     * {@link #getBooksByIds} see the same books.
+     */
+    @Override
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        return new HashSet<>(bookRepository.findExistingIds(ids));
+    }
+
+    private BookDto loadSnapshot(Long id) {
+        return toSnapshot(findBookWithCategories(id));
+    }
+
+    private Book findBookWithCategories(Long id) {
+        return bookRepository.findWithCategoriesById(id).orElseThrow(() -> {
+            negativeLookupCache.markMissing(EntityType.BOOK, id);
+            return bookNotFound(id);
+        });
+    }
+
+    private EntityNotFoundException bookNotFound(Long id) {
+        return new EntityNotFoundException("Book not found with id " + id);
+    }
+
+    private BookDto toSnapshot(Book book) {
+        BookDto snapshot = bookMapper.toBookDto(book);
+        if (snapshot.getCategories() != null) {
+            snapshot.setCategories(new HashSet<>(snapshot.getCategories()));
+        }
+        return snapshot;
+    }
+
+    private Page<BookDto> toBookDtoPage(Page<Long> idPage) {
+        if (idPage.isEmpty()) {
+            return new PageImpl<>(List.of(), idPage.getPageable(), idPage.getTotalElements());
+        }
+        List<BookDto> bookDtos = findAllWithCategoriesInOrder(idPage.getContent()).stream()
+                .map(bookMapper::toBookDto)
+                .toList();
+        return new PageImpl<>(bookDtos, idPage.getPageable(), idPage.getTotalElements());
+    }
+
+    private List<Book> findAllWithCategoriesInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Book> booksById = bookRepository.findAllWithCategoriesByIdIn(ids).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        return ids.stream()
+                .map(booksById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private <T> CursorPageDto<T> toCursorPage(List<Book> books, boolean hasNext,
+                                              Function<Book, T> mapper) {
+        String nextCursor = null;
+        if (hasNext && !books.isEmpty()) {
+            Book last = books.get(books.size() - 1);
+            nextCursor = new BookCursor(last.getTitle(), last.getId()).encode();
+        }
+        return new CursorPageDto<>(books.stream().map(mapper).toList(), nextCursor, hasNext);
+    }
+
+    private int normalizeScrollSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SCROLL_SIZE));
     }
 
     private void validateSearchParameters(BookSearchParametersDto searchParameters) {
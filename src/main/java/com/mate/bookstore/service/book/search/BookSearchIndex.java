@@ -0,0 +1,219 @@
+package com.mate.bookstore.service.book.search;
+
+import com.mate.bookstore.model.Book;
+import com.mate.bookstore.repository.book.BookRepository;
+import com.mate.bookstore.service.book.BookChangedEvent;
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory inverted index over book titles, authors and descriptions.
+ * Every query term matches whole tokens and, at a lower weight, tokens it
+ * is a prefix of. Multi-term queries only return books matching all terms,
+ * ranked by field-weighted term frequency times inverse document frequency.
+ */
+@Component
+@RequiredArgsConstructor
+@Log4j2
+public class BookSearchIndex {
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float AUTHOR_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final float PREFIX_MATCH_FACTOR = 0.5f;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private final BookRepository bookRepository;
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, Set<String>> termsByBook = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long startedAt = System.currentTimeMillis();
+        Long lastId = 0L;
+        List<Book> batch;
+        do {
+            batch = bookRepository.findByIdGreaterThanOrderByIdAsc(lastId,
+                    Limit.of(REBUILD_BATCH_SIZE));
+            for (Book book : batch) {
+                index(book.getId(), book.getTitle(), book.getAuthor(), book.getDescription());
+                lastId = book.getId();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        log.info("Indexed {} books for full-text search in {} ms",
+                size(), System.currentTimeMillis() - startedAt);
+    }
+
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.deleted()) {
+            remove(event.bookId());
+        } else {
+            index(event.bookId(), event.title(), event.author(), event.description());
+        }
+    }
+
+    public void index(Long bookId, String title, String author, String description) {
+        Map<String, Float> weights = new HashMap<>();
+        addTerms(weights, title, TITLE_WEIGHT);
+        addTerms(weights, author, AUTHOR_WEIGHT);
+        addTerms(weights, description, DESCRIPTION_WEIGHT);
+
+        lock.writeLock().lock();
+        try {
+            removeUnderLock(bookId);
+            weights.forEach((term, weight) -> postings
+                    .computeIfAbsent(term, t -> new HashMap<>())
+                    .put(bookId, weight));
+            termsByBook.put(bookId, weights.keySet());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            removeUnderLock(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of the best matching books, best match first.
+     *
+     * @param query free text entered by the user
+     * @param limit the maximum number of ids to return
+     * @return ranked book ids, empty if the query has no searchable terms
+     */
+    public List<Long> search(String query, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Float> scores = null;
+            for (String term : terms) {
+                Map<Long, Float> termScores = scoreTerm(term);
+                scores = scores == null ? termScores : intersect(scores, termScores);
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Float>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return termsByBook.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Float> scoreTerm(String term) {
+        Map<Long, Float> scores = new HashMap<>();
+        Map<Long, Float> exact = postings.get(term);
+        if (exact != null) {
+            accumulate(scores, exact, inverseDocumentFrequency(exact), 1f);
+        }
+        int expansions = 0;
+        for (Map<Long, Float> termPostings : postings
+                .subMap(term, false, term + Character.MAX_VALUE, false).values()) {
+            if (expansions++ == MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            accumulate(scores, termPostings, inverseDocumentFrequency(termPostings),
+                    PREFIX_MATCH_FACTOR);
+        }
+        return scores;
+    }
+
+    private void accumulate(Map<Long, Float> scores, Map<Long, Float> termPostings,
+                            float idf, float factor) {
+        termPostings.forEach((bookId, weight) ->
+                scores.merge(bookId, weight * idf * factor, Float::sum));
+    }
+
+    private Map<Long, Float> intersect(Map<Long, Float> left, Map<Long, Float> right) {
+        Map<Long, Float> smaller = left.size() <= right.size() ? left : right;
+        Map<Long, Float> larger = smaller == left ? right : left;
+        Map<Long, Float> result = new HashMap<>();
+        smaller.forEach((bookId, score) -> {
+            Float other = larger.get(bookId);
+            if (other != null) {
+                result.put(bookId, score + other);
+            }
+        });
+        return result;
+    }
+
+    private float inverseDocumentFrequency(Map<Long, Float> termPostings) {
+        return (float) Math.log(1 + (double) termsByBook.size() / termPostings.size());
+    }
+
+    private void removeUnderLock(Long bookId) {
+        Set<String> terms = termsByBook.remove(bookId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Float> termPostings = postings.get(term);
+            if (termPostings != null) {
+                termPostings.remove(bookId);
+                if (termPostings.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private void addTerms(Map<String, Float> weights, String text, float fieldWeight) {
+        for (String term : tokenize(text)) {
+            weights.merge(term, fieldWeight, Float::sum);
+        }
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return TOKEN_SEPARATOR.splitAsStream(normalized)
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+}
@@ -1,5 +1,8 @@
 package com.mate.bookstore.service.category;
 
+import com.mate.bookstore.cache.NegativeLookupCache;
+import com.mate.bookstore.cache.NegativeLookupCache.EntityType;
+import com.mate.bookstore.cache.SingleFlight;
 import com.mate.bookstore.dto.category.CategoryDto;
 import com.mate.bookstore.dto.category.CreateCategoryRequestDto;
 import com.mate.bookstore.dto.category.UpdateCategoryRequestDto;
@@ -18,6 +21,8 @@ import org.springframework.transaction.annotation.Transactional;
 public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository categoryRepository;
     private final CategoryMapper categoryMapper;
+    private final SingleFlight<Long, CategoryDto> categoryLoads;
+    private final NegativeLookupCache negativeLookupCache;
 
     @Override
     public Page<CategoryDto> findAll(Pageable pageable) {
@@ -27,7 +32,7 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     public CategoryDto getById(Long id) {
-        return categoryMapper.toDto(findById(id));
+        return categoryLoads.load(id, key -> categoryMapper.toDto(findById(key)));
     }
 
     @Override
@@ -35,6 +40,7 @@ public class CategoryServiceImpl implements CategoryService {
     public CategoryDto save(CreateCategoryRequestDto categoryDto) {
         Category category = categoryMapper.toEntity(categoryDto);
         category = categoryRepository.save(category);
+        negativeLookupCache.invalidateAfterCommit(EntityType.CATEGORY, category.getId());
         return categoryMapper.toDto(category);
     }
 
@@ -53,7 +59,16 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     private Category findById(Long id) {
-        return categoryRepository.findById(id).orElseThrow(()
-                -> new EntityNotFoundException("Category not found with id: " + id));
+        if (negativeLookupCache.isMissing(EntityType.CATEGORY, id)) {
+            throw categoryNotFound(id);
+        }
+        return categoryRepository.findById(id).orElseThrow(() -> {
+            negativeLookupCache.markMissing(EntityType.CATEGORY, id);
+            return categoryNotFound(id);
+        });
+    }
+
+    private EntityNotFoundException categoryNotFound(Long id) {
+        return new EntityNotFoundException("Category not found with id: " + id);
     }
 }
@@ -0,0 +1,17 @@
+package com.mate.bookstore.service.inventory;
+
+import com.mate.bookstore.dto.inventory.StockDto;
+import java.util.Collection;
+import java.util.Map;
+
+public interface InventoryService {
+    StockDto getStock(Long bookId);
+
+    StockDto setStock(Long bookId, int quantity);
+
+    void reserve(Long orderId, Map<Long, Integer> quantitiesByBookId);
+
+    void commit(Collection<Long> orderIds);
+
+    void release(Collection<Long> orderIds);
+}
@@ -0,0 +1,171 @@
+package com.mate.bookstore.service.inventory;
+
+import com.mate.bookstore.dto.inventory.StockDto;
+import com.mate.bookstore.exception.InsufficientStockException;
+import com.mate.bookstore.model.InventoryStripe;
+import com.mate.bookstore.model.InventoryStripeId;
+import com.mate.bookstore.model.StockReservation;
+import com.mate.bookstore.repository.inventory.InventoryStripeRepository;
+import com.mate.bookstore.repository.inventory.StockReservationRepository;
+import com.mate.bookstore.repository.inventory.StripeQuantity;
+import com.mate.bookstore.service.book.BookService;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Stock is split over {@code inventory.stripes} rows per book. A reservation that one
+ * stripe can cover takes it from a stripe picked at random, with a single conditional
+ * decrement, so concurrent checkouts of one book usually lock different rows. Larger
+ * reservations lock the book's stripes in stripe order, the same order every checkout
+ * uses, and take from them in turn. Books without stripes are not tracked and can always
+ * be ordered.
+ */
+@Service
+@RequiredArgsConstructor
+public class InventoryServiceImpl implements InventoryService {
+    private final InventoryStripeRepository inventoryStripeRepository;
+    private final StockReservationRepository stockReservationRepository;
+    private final BookService bookService;
+    @Value("${inventory.stripes:8}")
+    private int stripes;
+
+    @Override
+    public StockDto getStock(Long bookId) {
+        bookService.findById(bookId);
+        return new StockDto(bookId, inventoryStripeRepository.sumQuantity(bookId));
+    }
+
+    /**
+     * Replaces the book's available stock, spread evenly over the stripes.
+     */
+    @Override
+    @Transactional
+    public StockDto setStock(Long bookId, int quantity) {
+        bookService.findById(bookId);
+        inventoryStripeRepository.deleteAllByBookId(bookId);
+        List<InventoryStripe> newStripes = new ArrayList<>();
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            int share = quantity / stripes + (stripe < quantity % stripes ? 1 : 0);
+            newStripes.add(new InventoryStripe(new InventoryStripeId(bookId, stripe), share));
+        }
+        inventoryStripeRepository.saveAll(newStripes);
+        return new StockDto(bookId, (long) quantity);
+    }
+
+    /**
+     * Takes the quantities from stock for the order. Books are handled in id order so
+     * concurrent checkouts lock stripes of different books in the same order. Runs in
+     * the caller's transaction, which rolls everything back if any book falls short.
+     *
+     * @throws InsufficientStockException if a tracked book has not enough stock left
+     */
+    @Override
+    @Transactional
+    public void reserve(Long orderId, Map<Long, Integer> quantitiesByBookId) {
+        List<StockReservation> reservations = new ArrayList<>();
+        new TreeMap<>(quantitiesByBookId).forEach((bookId, quantity) ->
+                reservations.addAll(reserveBook(orderId, bookId, quantity)));
+        stockReservationRepository.saveAll(reservations);
+    }
+
+    @Override
+    @Transactional
+    public void commit(Collection<Long> orderIds) {
+        stockReservationRepository.updateStatus(orderIds, StockReservation.Status.RESERVED,
+                StockReservation.Status.COMMITTED);
+    }
+
+    /**
+     * Gives the orders' reserved quantities back, one update per stripe they came from,
+     * in book and stripe order. Quantities of a stripe that no longer exists, because the
+     * stock was reset with fewer stripes since, go to {@code stripe % stripes} instead.
+     */
+    @Override
+    @Transactional
+    public void release(Collection<Long> orderIds) {
+        List<StockReservation> reservations = stockReservationRepository
+                .findByOrderIdInAndStatusOrderByBookIdAscStripeAsc(orderIds,
+                        StockReservation.Status.RESERVED);
+        Map<Long, List<Integer>> stripesByBookId = new HashMap<>();
+        Map<InventoryStripeId, Integer> quantitiesByStripe = new TreeMap<>(
+                Comparator.comparing(InventoryStripeId::getBookId)
+                        .thenComparing(InventoryStripeId::getStripe));
+        for (StockReservation reservation : reservations) {
+            List<Integer> bookStripes = stripesByBookId.computeIfAbsent(
+                    reservation.getBookId(), this::findStripes);
+            if (!bookStripes.isEmpty()) {
+                int stripe = bookStripes.contains(reservation.getStripe())
+                        ? reservation.getStripe()
+                        : bookStripes.get(reservation.getStripe() % bookStripes.size());
+                quantitiesByStripe.merge(new InventoryStripeId(reservation.getBookId(), stripe),
+                        reservation.getQuantity(), Integer::sum);
+            }
+            reservation.setStatus(StockReservation.Status.RELEASED);
+        }
+        quantitiesByStripe.forEach((stripe, quantity) -> inventoryStripeRepository
+                .giveBack(stripe.getBookId(), stripe.getStripe(), quantity));
+    }
+
+    private List<Integer> findStripes(Long bookId) {
+        return inventoryStripeRepository.findStripeQuantities(bookId).stream()
+                .map(StripeQuantity::stripe)
+                .sorted()
+                .toList();
+    }
+
+    private List<StockReservation> reserveBook(Long orderId, Long bookId, int quantity) {
+        List<StripeQuantity> bookStripes = inventoryStripeRepository.findStripeQuantities(bookId);
+        if (bookStripes.isEmpty()) {
+            return List.of();
+        }
+        Integer stripe = findStripeHolding(bookStripes, quantity);
+        if (stripe != null && inventoryStripeRepository.take(bookId, stripe, quantity) == 1) {
+            return List.of(new StockReservation(orderId, bookId, stripe, quantity));
+        }
+        return reserveInStripeOrder(orderId, bookId, quantity);
+    }
+
+    /**
+     * Picks a stripe that held the whole quantity when the stripes were read, starting
+     * the search at a random stripe.
+     *
+     * @return the stripe, or {@code null} when the quantity has to come from several
+     */
+    private Integer findStripeHolding(List<StripeQuantity> bookStripes, int quantity) {
+        int start = ThreadLocalRandom.current().nextInt(bookStripes.size());
+        for (int i = 0; i < bookStripes.size(); i++) {
+            StripeQuantity stripe = bookStripes.get((start + i) % bookStripes.size());
+            if (stripe.quantity() >= quantity) {
+                return stripe.stripe();
+            }
+        }
+        return null;
+    }
+
+    private List<StockReservation> reserveInStripeOrder(Long orderId, Long bookId,
+                                                        int quantity) {
+        List<StockReservation> reservations = new ArrayList<>();
+        int remaining = quantity;
+        for (StripeQuantity stripe : inventoryStripeRepository.lockStripeQuantities(bookId)) {
+            int take = Math.min(remaining, stripe.quantity());
+            if (take > 0 && inventoryStripeRepository.take(bookId, stripe.stripe(), take) == 1) {
+                reservations.add(new StockReservation(orderId, bookId, stripe.stripe(), take));
+                remaining -= take;
+            }
+        }
+        if (remaining > 0) {
+            throw new InsufficientStockException(bookId, quantity);
+        }
+        return reservations;
+    }
+}
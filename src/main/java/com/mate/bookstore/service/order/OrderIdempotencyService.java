@@ -0,0 +1,235 @@
+package com.mate.bookstore.service.order;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mate.bookstore.cache.ExpiringCache;
+import com.mate.bookstore.cache.SingleFlight;
+import com.mate.bookstore.dto.order.CreateOrderRequestDto;
+import com.mate.bookstore.dto.order.OrderDto;
+import com.mate.bookstore.exception.InvalidIdempotencyKeyException;
+import com.mate.bookstore.exception.LoadTimeoutException;
+import com.mate.bookstore.model.IdempotencyKey;
+import com.mate.bookstore.model.User;
+import com.mate.bookstore.repository.idempotency.IdempotencyKeyRepository;
+import com.mate.bookstore.repository.idempotency.IdempotencyKeyState;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs checkout at most once per user and {@code Idempotency-Key}. The key is claimed
+ * by inserting its row, which the unique index on (user_id, idempotency_key) lets only
+ * one request do, and the response is stored in the same transaction as the order.
+ * Retries get the stored response; duplicates arriving while the first request runs
+ * wait for it, through {@link SingleFlight} on this node and by polling the row
+ * across nodes. The row is polled as a projection, which the open session of the web
+ * request does not cache, so a completion committed elsewhere is seen on the next poll.
+ * Recently completed keys are answered from memory. Every claim has its own token, and
+ * only the holder of the current token can complete or free the key, so a request that
+ * was taken over as stale rolls its order back and waits instead.
+ */
+@Service
+@Log4j2
+public class OrderIdempotencyService {
+    public static final int MAX_KEY_LENGTH = 255;
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(100);
+    private final OrderService orderService;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ExpiringCache<RequestKey, OrderDto> recentOrders;
+    private final SingleFlight<RequestKey, OrderDto> orderLoads;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final Duration staleAfter;
+    private final int purgeBatchSize;
+
+    public OrderIdempotencyService(OrderService orderService,
+                                   IdempotencyKeyRepository idempotencyKeyRepository,
+                                   ExpiringCache<RequestKey, OrderDto> recentOrders,
+                                   SingleFlight<RequestKey, OrderDto> orderLoads,
+                                   ObjectMapper objectMapper,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${orders.idempotency.ttl:P1D}") Duration ttl,
+                                   @Value("${orders.idempotency.wait-timeout:PT30S}")
+                                   Duration waitTimeout,
+                                   @Value("${orders.idempotency.stale-after:PT2M}")
+                                   Duration staleAfter,
+                                   @Value("${orders.idempotency.purge-batch-size:500}")
+                                   int purgeBatchSize) {
+        this.orderService = orderService;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.recentOrders = recentOrders;
+        this.orderLoads = orderLoads;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+        this.staleAfter = staleAfter;
+        this.purgeBatchSize = purgeBatchSize;
+    }
+
+    /**
+     * Creates the order for the first request with this key and returns its response to
+     * every later one. A failed request frees the key, so it can be retried.
+     *
+     * @throws LoadTimeoutException if the first request does not finish in time
+     */
+    public OrderDto createOrder(CreateOrderRequestDto requestDto, User user,
+                                String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException(MAX_KEY_LENGTH);
+        }
+        RequestKey key = new RequestKey(user.getId(), idempotencyKey);
+        OrderDto recent = recentOrders.get(key);
+        if (recent != null) {
+            return recent;
+        }
+        return orderLoads.load(key, requestKey -> createOnce(requestKey, requestDto, user));
+    }
+
+    @Scheduled(fixedDelayString = "${orders.idempotency.purge-interval:PT10M}",
+            initialDelayString = "${orders.idempotency.purge-interval:PT10M}")
+    public int purgeExpired() {
+        Instant now = Instant.now();
+        int purged = 0;
+        List<Long> ids;
+        do {
+            ids = idempotencyKeyRepository.findExpiredIds(now,
+                    PageRequest.of(0, purgeBatchSize));
+            if (!ids.isEmpty()) {
+                idempotencyKeyRepository.deleteAllByIdInBatch(ids);
+                purged += ids.size();
+            }
+        } while (ids.size() == purgeBatchSize);
+        log.debug("Purged {} expired idempotency keys", purged);
+        return purged;
+    }
+
+    private OrderDto createOnce(RequestKey key, CreateOrderRequestDto requestDto, User user) {
+        final long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (true) {
+            Optional<IdempotencyKeyState> existing = idempotencyKeyRepository
+                    .findState(key.userId(), key.key());
+            if (existing.isPresent() && existing.get().isCompleted()) {
+                return remember(key, existing.get());
+            }
+            Instant now = Instant.now();
+            Optional<IdempotencyKeyState> claimed = existing.isPresent()
+                    ? takeOver(key, existing.get(), now)
+                    : claim(key, now);
+            if (claimed.isPresent()) {
+                Optional<OrderDto> order = createAndStore(key, claimed.get(), requestDto,
+                        user);
+                if (order.isPresent()) {
+                    return order.get();
+                }
+                log.warn("Idempotency key {} of user {} was taken over, order rolled back",
+                        key.key(), key.userId());
+            }
+            if (System.nanoTime() >= deadline) {
+                throw new LoadTimeoutException(
+                        "Timed out waiting for the order with idempotency key " + key.key());
+            }
+            pause();
+        }
+    }
+
+    private Optional<IdempotencyKeyState> claim(RequestKey key, Instant now) {
+        try {
+            IdempotencyKey claimed = idempotencyKeyRepository.saveAndFlush(new IdempotencyKey(
+                    key.userId(), key.key(), newClaimToken(), now, now.plus(ttl)));
+            return Optional.of(new IdempotencyKeyState(claimed.getId(),
+                    claimed.getClaimToken(), null, null, claimed.getCreatedAt(),
+                    claimed.getExpiresAt()));
+        } catch (DataIntegrityViolationException e) {
+            return Optional.empty();
+        }
+    }
+
+    private Optional<IdempotencyKeyState> takeOver(RequestKey key, IdempotencyKeyState running,
+                                                   Instant now) {
+        String claimToken = newClaimToken();
+        if (idempotencyKeyRepository.takeOver(running.id(), claimToken, now,
+                now.minus(staleAfter)) == 1) {
+            log.warn("Took over idempotency key {} of user {} abandoned since {}",
+                    key.key(), key.userId(), running.createdAt());
+            return Optional.of(running.withClaim(claimToken, now));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Creates the order and stores its response under the claim in one transaction.
+     * Returns empty, with the order rolled back, when the claim was taken over meanwhile.
+     */
+    private Optional<OrderDto> createAndStore(RequestKey key, IdempotencyKeyState claimed,
+                                              CreateOrderRequestDto requestDto, User user) {
+        OrderDto order;
+        try {
+            order = transactionTemplate.execute(status -> {
+                OrderDto created = orderService.createOrder(requestDto, user);
+                if (idempotencyKeyRepository.complete(claimed.id(), claimed.claimToken(),
+                        created.getId(), toJson(created)) != 1) {
+                    status.setRollbackOnly();
+                    return null;
+                }
+                return created;
+            });
+        } catch (RuntimeException e) {
+            idempotencyKeyRepository.release(claimed.id(), claimed.claimToken());
+            throw e;
+        }
+        if (order == null) {
+            return Optional.empty();
+        }
+        recentOrders.put(key, order, claimed.expiresAt().toEpochMilli());
+        return Optional.of(order);
+    }
+
+    private String newClaimToken() {
+        return UUID.randomUUID().toString();
+    }
+
+    private OrderDto remember(RequestKey key, IdempotencyKeyState completed) {
+        try {
+            OrderDto order = objectMapper.readValue(completed.response(), OrderDto.class);
+            recentOrders.put(key, order, completed.expiresAt().toEpochMilli());
+            return order;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Can't read stored response for order "
+                    + completed.orderId(), e);
+        }
+    }
+
+    private String toJson(OrderDto order) {
+        try {
+            return objectMapper.writeValueAsString(order);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Can't store response for order "
+                    + order.getId(), e);
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(POLL_INTERVAL);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LoadTimeoutException("Interrupted waiting for an idempotent order");
+        }
+    }
+
+    public record RequestKey(Long userId, String key) {
+    }
+}
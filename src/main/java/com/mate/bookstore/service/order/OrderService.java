@@ -3,19 +3,31 @@ package com.mate.bookstore.service.order;
 import com.mate.bookstore.dto.order.CreateOrderRequestDto;
 import com.mate.bookstore.dto.order.OrderDto;
 import com.mate.bookstore.dto.order.OrderItemDto;
+import com.mate.bookstore.dto.order.OrderStatusUpdateResultDto;
+import com.mate.bookstore.dto.order.OrderSummaryDto;
 import com.mate.bookstore.dto.order.UpdateOrderStatusRequestDto;
+import com.mate.bookstore.dto.order.UpdateOrderStatusesRequestDto;
 import com.mate.bookstore.model.User;
 import java.util.List;
+import java.util.Map;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 public interface OrderService {
     OrderDto createOrder(CreateOrderRequestDto createOrderRequestDto, User user);
 
+    OrderDto createOrder(User user, String shippingAddress,
+                         Map<Long, Integer> quantitiesByBookId);
+
     Page<OrderDto> findAll(User user, Pageable pageable);
 
+    Page<OrderSummaryDto> findSummaries(User user, Pageable pageable);
+
     OrderDto updateOrderStatus(Long id, UpdateOrderStatusRequestDto updateOrderStatusRequestDto);
 
+    List<OrderStatusUpdateResultDto> updateOrderStatuses(
+            UpdateOrderStatusesRequestDto updateOrderStatusesRequestDto);
+
     List<OrderItemDto> findOrderItemsByOrderId(Long orderId, User user);
 
     OrderItemDto findOrderItemById(Long orderId, Long orderItemId, User user);
@@ -1,23 +1,35 @@
 package com.mate.bookstore.service.order;
 
+import com.mate.bookstore.cache.NegativeLookupCache;
+import com.mate.bookstore.cache.NegativeLookupCache.EntityType;
 import com.mate.bookstore.dto.order.CreateOrderRequestDto;
 import com.mate.bookstore.dto.order.OrderDto;
 import com.mate.bookstore.dto.order.OrderItemDto;
+import com.mate.bookstore.dto.order.OrderStatusUpdateResultDto;
+import com.mate.bookstore.dto.order.OrderStatusUpdateResultDto.Outcome;
+import com.mate.bookstore.dto.order.OrderSummaryDto;
 import com.mate.bookstore.dto.order.UpdateOrderStatusRequestDto;
+import com.mate.bookstore.dto.order.UpdateOrderStatusesRequestDto;
 import com.mate.bookstore.exception.EntityNotFoundException;
+import com.mate.bookstore.exception.InvalidStatusTransitionException;
 import com.mate.bookstore.exception.ShoppingCartEmptyException;
 import com.mate.bookstore.mapper.OrderMapper;
-import com.mate.bookstore.model.CartItem;
 import com.mate.bookstore.model.Order;
 import com.mate.bookstore.model.OrderItem;
 import com.mate.bookstore.model.OrderStatus;
 import com.mate.bookstore.model.ShoppingCart;
 import com.mate.bookstore.model.User;
 import com.mate.bookstore.repository.order.OrderRepository;
+import com.mate.bookstore.repository.order.OrderStatusRow;
+import com.mate.bookstore.service.inventory.InventoryService;
+import com.mate.bookstore.service.order.event.OrderEventOutbox;
 import com.mate.bookstore.service.order.item.OrderItemService;
 import com.mate.bookstore.service.shoppingcart.ShoppingCartService;
 import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -33,6 +45,9 @@ public class OrderServiceImpl implements OrderService {
     private final ShoppingCartService shoppingCartService;
     private final OrderItemService orderItemService;
     private final OrderMapper orderMapper;
+    private final NegativeLookupCache negativeLookupCache;
+    private final InventoryService inventoryService;
+    private final OrderEventOutbox orderEventOutbox;
 
     @Override
     @Transactional
@@ -42,61 +57,169 @@ public class OrderServiceImpl implements OrderService {
 
         validateShoppingCartNotEmpty(shoppingCart);
 
-        BigDecimal totalPrice = calculateTotal(shoppingCart.getCartItems());
-
-        Order order = buildAndSaveOrder(user, createOrderRequestDto.shippingAddress(), totalPrice);
-
-        Set<OrderItem> orderItems = orderItemService
-                .createOrderItemsFromCart(shoppingCart.getCartItems(), order);
-        order.setOrderItems(orderItems);
-        order = orderRepository.save(order);
+        Order order = buildOrder(user, createOrderRequestDto.shippingAddress());
+        OrderDto created = saveOrder(order, orderItemService
+                .createOrderItemsFromCart(shoppingCart.getCartItems(), order));
 
         shoppingCartService.clearShoppingCart(shoppingCart);
-        return orderMapper.toOrderDto(order);
+        return created;
+    }
+
+    /**
+     * Creates the order from quantities taken from the cart earlier, e.g. when the
+     * checkout was queued, leaving the current cart alone.
+     */
+    @Override
+    @Transactional
+    public OrderDto createOrder(User user, String shippingAddress,
+                                Map<Long, Integer> quantitiesByBookId) {
+        if (quantitiesByBookId.isEmpty()) {
+            throw new ShoppingCartEmptyException();
+        }
+        Order order = buildOrder(user, shippingAddress);
+        return saveOrder(order, orderItemService.createOrderItems(quantitiesByBookId, order));
     }
 
+    /**
+     * Reads a page of orders and then the items of all of them with one more query.
+     */
     @Override
     public Page<OrderDto> findAll(User user, Pageable pageable) {
-        return orderRepository.findByUser(user, pageable)
-                .map(orderMapper::toOrderDto);
+        Page<Order> orders = orderRepository.findByUser(user, pageable);
+        Map<Long, Set<OrderItemDto>> itemsByOrderId = orderItemService
+                .getOrderItemsByOrderIds(orders.map(Order::getId).getContent());
+        return orders.map(order -> {
+            OrderDto orderDto = orderMapper.toOrderDtoWithoutItems(order);
+            orderDto.setOrderItems(itemsByOrderId.getOrDefault(order.getId(), Set.of()));
+            return orderDto;
+        });
+    }
+
+    @Override
+    public Page<OrderSummaryDto> findSummaries(User user, Pageable pageable) {
+        return orderRepository.findSummariesByUserId(user.getId(), pageable);
     }
 
     @Override
     public List<OrderItemDto> findOrderItemsByOrderId(Long orderId, User user) {
-        Order userOrderById = getUserOrderById(orderId, user);
-        return orderItemService.getOrderItemsForOrder(userOrderById);
+        validateOrderOwnership(orderId, user);
+        return orderItemService.getOrderItemsForOrder(orderId);
     }
 
     @Override
     public OrderItemDto findOrderItemById(Long orderId, Long orderItemId, User user) {
-        Order order = getUserOrderById(orderId, user);
-        return orderItemService.getOrderItemById(order, orderItemId);
-
+        return orderItemService.getOrderItemById(orderId, orderItemId, user.getId());
     }
 
     @Override
     @Transactional
     public OrderDto updateOrderStatus(Long id, UpdateOrderStatusRequestDto requestDto) {
         Order order = findOrderById(id);
-        order.setStatus(OrderStatus.valueOf(requestDto.status()));
-        return orderMapper.toOrderDto(orderRepository.save(order));
+        OrderStatus status = OrderStatus.valueOf(requestDto.status());
+        if (status == order.getStatus()) {
+            return orderMapper.toOrderDto(order);
+        }
+        if (!order.getStatus().canTransitionTo(status)) {
+            throw new InvalidStatusTransitionException(order.getStatus(), status);
+        }
+        if (status == OrderStatus.CANCELLED) {
+            inventoryService.release(List.of(order.getId()));
+        } else if (status == OrderStatus.DELIVERED) {
+            inventoryService.commit(List.of(order.getId()));
+        }
+        order.setStatus(status);
+        order = orderRepository.save(order);
+        orderEventOutbox.recordStatusChanged(order);
+        return orderMapper.toOrderDto(order);
+    }
+
+    /**
+     * Moves the orders that are in {@code fromStatus} to {@code status} with one guarded
+     * UPDATE. Orders are locked while their statuses are read, so the outcome reported
+     * for each id is the one the UPDATE applied.
+     */
+    @Override
+    @Transactional
+    public List<OrderStatusUpdateResultDto> updateOrderStatuses(
+            UpdateOrderStatusesRequestDto requestDto) {
+        OrderStatus from = OrderStatus.valueOf(requestDto.fromStatus());
+        OrderStatus to = OrderStatus.valueOf(requestDto.status());
+        if (!from.canTransitionTo(to)) {
+            throw new InvalidStatusTransitionException(from, to);
+        }
+        Set<Long> ids = new LinkedHashSet<>(requestDto.orderIds());
+        Map<Long, OrderStatus> currentStatuses = new HashMap<>();
+        for (OrderStatusRow row : orderRepository.lockStatuses(ids)) {
+            currentStatuses.put(row.id(), row.status());
+        }
+        List<Long> matching = ids.stream()
+                .filter(id -> currentStatuses.get(id) == from)
+                .toList();
+        if (!matching.isEmpty()) {
+            orderRepository.updateStatus(matching, from, to);
+            orderEventOutbox.recordStatusChanged(matching);
+            if (to == OrderStatus.CANCELLED) {
+                inventoryService.release(matching);
+            } else if (to == OrderStatus.DELIVERED) {
+                inventoryService.commit(matching);
+            }
+        }
+        return ids.stream()
+                .map(id -> toStatusUpdateResult(id, currentStatuses.get(id), from, to))
+                .toList();
+    }
+
+    private OrderStatusUpdateResultDto toStatusUpdateResult(Long id, OrderStatus current,
+                                                            OrderStatus from,
+                                                            OrderStatus to) {
+        if (current == null) {
+            return new OrderStatusUpdateResultDto(id, Outcome.NOT_FOUND, null);
+        }
+        if (current != from) {
+            return new OrderStatusUpdateResultDto(id, Outcome.STATUS_MISMATCH, current);
+        }
+        return new OrderStatusUpdateResultDto(id, Outcome.UPDATED, to);
     }
 
-    private Order buildAndSaveOrder(User user, String shippingAddress, BigDecimal totalPrice) {
+    private OrderDto saveOrder(Order order, Set<OrderItem> orderItems) {
+        order.setOrderItems(orderItems);
+        order.setTotal(calculateTotal(orderItems));
+        order.setItemCount(countItems(orderItems));
+        order = orderRepository.save(order);
+        inventoryService.reserve(order.getId(), collectQuantities(orderItems));
+        orderEventOutbox.recordCreated(order);
+        negativeLookupCache.invalidateAfterCommit(EntityType.ORDER, order.getId());
+        return orderMapper.toOrderDto(order);
+    }
+
+    private Order buildOrder(User user, String shippingAddress) {
         Order order = new Order();
         order.setUser(user);
         order.setShippingAddress(shippingAddress);
-        order.setTotal(totalPrice);
-        return orderRepository.save(order);
+        return order;
     }
 
-    private BigDecimal calculateTotal(Set<CartItem> cartItems) {
-        return cartItems.stream()
-                .map(item -> item.getBook().getPrice()
-                        .multiply(new BigDecimal(item.getQuantity())))
+    private BigDecimal calculateTotal(Set<OrderItem> orderItems) {
+        return orderItems.stream()
+                .map(OrderItem::getPrice)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
 
+    private int countItems(Set<OrderItem> orderItems) {
+        return orderItems.stream()
+                .mapToInt(OrderItem::getQuantity)
+                .sum();
+    }
+
+    private Map<Long, Integer> collectQuantities(Set<OrderItem> orderItems) {
+        Map<Long, Integer> quantitiesByBookId = new HashMap<>();
+        for (OrderItem orderItem : orderItems) {
+            quantitiesByBookId.merge(orderItem.getBook().getId(), orderItem.getQuantity(),
+                    Integer::sum);
+        }
+        return quantitiesByBookId;
+    }
+
     private void validateShoppingCartNotEmpty(ShoppingCart shoppingCart) {
         if (shoppingCart.getCartItems() == null || shoppingCart.getCartItems().isEmpty()) {
             throw new ShoppingCartEmptyException();
@@ -104,20 +227,32 @@ public class OrderServiceImpl implements OrderService {
     }
 
     private Order findOrderById(Long id) {
-        return orderRepository.findById(id)
-                .orElseThrow(() ->
-                        new EntityNotFoundException("Order not found with id: " + id));
+        if (negativeLookupCache.isMissing(EntityType.ORDER, id)) {
+            throw orderNotFound(id);
+        }
+        return orderRepository.findById(id).orElseThrow(() -> {
+            negativeLookupCache.markMissing(EntityType.ORDER, id);
+            return orderNotFound(id);
+        });
     }
 
-    private Order getUserOrderById(Long id, User user) {
-        Order order = findOrderById(id);
-        validateOrderOwnership(order, user);
-        return order;
+    private EntityNotFoundException orderNotFound(Long id) {
+        return new EntityNotFoundException("Order not found with id: " + id);
     }
 
-    private void validateOrderOwnership(Order order, User user) {
-        if (!order.getUser().getId().equals(user.getId())) {
-            throw new AccessDeniedException("Order with id " + order.getId()
+    /**
+     * Reads only the order's owner id, so the check never loads the order itself.
+     */
+    private void validateOrderOwnership(Long orderId, User user) {
+        if (negativeLookupCache.isMissing(EntityType.ORDER, orderId)) {
+            throw orderNotFound(orderId);
+        }
+        Long ownerId = orderRepository.findUserIdById(orderId).orElseThrow(() -> {
+            negativeLookupCache.markMissing(EntityType.ORDER, orderId);
+            return orderNotFound(orderId);
+        });
+        if (!ownerId.equals(user.getId())) {
+            throw new AccessDeniedException("Order with id " + orderId
                     + " doesn't belong to user " + user.getId());
         }
     }
@@ -0,0 +1,59 @@
+package com.mate.bookstore.service.order.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mate.bookstore.dto.order.OrderEventDto;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Appends events as JSON lines to a local file and syncs it before returning. Meant for
+ * development and tests; select another {@code outbox.sink} for real consumers.
+ */
+@Service
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "file", matchIfMissing = true)
+public class FileOrderEventSink implements OrderEventSink {
+    private final ObjectMapper objectMapper;
+    private final Path path;
+
+    public FileOrderEventSink(ObjectMapper objectMapper,
+                              @Value("${outbox.file.path:order-events.jsonl}") Path path) {
+        this.objectMapper = objectMapper;
+        this.path = path;
+    }
+
+    @Override
+    public synchronized void send(List<OrderEventDto> events) {
+        StringBuilder lines = new StringBuilder();
+        for (OrderEventDto event : events) {
+            lines.append(toJson(event)).append('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't write order events to " + path, e);
+        }
+    }
+
+    private String toJson(OrderEventDto event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Can't serialize order event " + event.id(), e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.mate.bookstore.service.order.event;
+
+import com.mate.bookstore.model.Order;
+import com.mate.bookstore.model.OrderEvent;
+import com.mate.bookstore.repository.order.OrderEventRepository;
+import java.time.Instant;
+import java.util.Collection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes order events to the {@code order_events} outbox. Every method joins the caller's
+ * transaction, so an event is stored exactly when the order change it describes commits.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class OrderEventOutbox {
+    private final OrderEventRepository orderEventRepository;
+
+    public void recordCreated(Order order) {
+        orderEventRepository.save(new OrderEvent(order, OrderEvent.Type.CREATED, Instant.now()));
+    }
+
+    public void recordStatusChanged(Order order) {
+        orderEventRepository.save(new OrderEvent(order, OrderEvent.Type.STATUS_CHANGED,
+                Instant.now()));
+    }
+
+    public void recordStatusChanged(Collection<Long> orderIds) {
+        orderEventRepository.insertStatusChanged(orderIds, Instant.now());
+    }
+}
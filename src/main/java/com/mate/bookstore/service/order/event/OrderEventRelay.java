@@ -0,0 +1,115 @@
+package com.mate.bookstore.service.order.event;
+
+import com.mate.bookstore.dto.order.OrderEventDto;
+import com.mate.bookstore.repository.order.OrderEventRepository;
+import com.mate.bookstore.service.scheduling.SchedulerLockService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Drains the {@code order_events} outbox to the {@link OrderEventSink} in id order.
+ * A batch is sent once it holds {@code outbox.relay.batch-size} events or its oldest
+ * event has waited {@code outbox.relay.linger}, and its rows are deleted only after the
+ * sink accepted it, so delivery is at least once. Only the node holding the relay lease
+ * runs it, which keeps events of one order in the order they were written.
+ */
+@Service
+@Log4j2
+public class OrderEventRelay {
+    static final String LOCK_NAME = "order-event-relay";
+    private final OrderEventRepository orderEventRepository;
+    private final OrderEventSink orderEventSink;
+    private final SchedulerLockService schedulerLockService;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration linger;
+    private final Duration lease;
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter deliveredEvents;
+    private final Timer deliveryLatency;
+
+    public OrderEventRelay(OrderEventRepository orderEventRepository,
+                           OrderEventSink orderEventSink,
+                           SchedulerLockService schedulerLockService,
+                           MeterRegistry meterRegistry,
+                           @Value("${outbox.relay.enabled:true}") boolean enabled,
+                           @Value("${outbox.relay.batch-size:500}") int batchSize,
+                           @Value("${outbox.relay.linger:PT0.5S}") Duration linger,
+                           @Value("${outbox.relay.lease:PT30S}") Duration lease) {
+        this.orderEventRepository = orderEventRepository;
+        this.orderEventSink = orderEventSink;
+        this.schedulerLockService = schedulerLockService;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.linger = linger;
+        this.lease = lease;
+        TimeGauge.builder("outbox.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Age of the oldest undelivered order event")
+                .register(meterRegistry);
+        this.deliveredEvents = Counter.builder("outbox.delivered")
+                .description("Order events handed to the sink")
+                .register(meterRegistry);
+        this.deliveryLatency = Timer.builder("outbox.delivery.latency")
+                .description("Time from an order change to its event reaching the sink")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval:PT0.2S}",
+            initialDelayString = "${outbox.relay.poll-interval:PT0.2S}")
+    public void relayIfLeader() {
+        if (!enabled || !schedulerLockService.tryAcquire(LOCK_NAME, lease)) {
+            return;
+        }
+        try {
+            relay();
+        } finally {
+            schedulerLockService.release(LOCK_NAME);
+        }
+    }
+
+    /**
+     * Sends batches until the outbox is empty, a partial batch is still lingering or the
+     * lease can't be extended. Returns the number of events delivered.
+     */
+    public int relay() {
+        int delivered = 0;
+        while (true) {
+            List<OrderEventDto> batch = orderEventRepository.findOldest(
+                    PageRequest.of(0, batchSize));
+            Instant now = Instant.now();
+            lagMillis.set(batch.isEmpty() ? 0
+                    : Duration.between(batch.get(0).occurredAt(), now).toMillis());
+            if (batch.isEmpty() || batch.size() < batchSize
+                    && batch.get(0).occurredAt().plus(linger).isAfter(now)) {
+                break;
+            }
+            orderEventSink.send(batch);
+            orderEventRepository.deleteAllByIdInBatch(
+                    batch.stream().map(OrderEventDto::id).toList());
+            Instant sentAt = Instant.now();
+            batch.forEach(event -> deliveryLatency.record(
+                    Duration.between(event.occurredAt(), sentAt)));
+            deliveredEvents.increment(batch.size());
+            delivered += batch.size();
+            if (!schedulerLockService.tryAcquire(LOCK_NAME, lease)) {
+                break;
+            }
+        }
+        if (delivered > 0) {
+            log.debug("Relayed {} order events", delivered);
+        }
+        return delivered;
+    }
+}
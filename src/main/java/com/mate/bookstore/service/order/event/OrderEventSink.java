@@ -0,0 +1,13 @@
+package com.mate.bookstore.service.order.event;
+
+import com.mate.bookstore.dto.order.OrderEventDto;
+import java.util.List;
+
+/**
+ * Where the relay delivers order events. {@link #send} gets events in outbox order and
+ * must only return once they are stored on the other side; when it throws, the same
+ * events are sent again later, so consumers have to tolerate duplicates.
+ */
+public interface OrderEventSink {
+    void send(List<OrderEventDto> events);
+}
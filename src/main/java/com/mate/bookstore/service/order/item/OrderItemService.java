@@ -4,13 +4,19 @@ import com.mate.bookstore.dto.order.OrderItemDto;
 import com.mate.bookstore.model.CartItem;
 import com.mate.bookstore.model.Order;
 import com.mate.bookstore.model.OrderItem;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public interface OrderItemService {
     Set<OrderItem> createOrderItemsFromCart(Set<CartItem> cartItems, Order order);
 
-    List<OrderItemDto> getOrderItemsForOrder(Order order);
+    Set<OrderItem> createOrderItems(Map<Long, Integer> quantitiesByBookId, Order order);
 
-    OrderItemDto getOrderItemById(Order order, Long orderItemId);
+    List<OrderItemDto> getOrderItemsForOrder(Long orderId);
+
+    Map<Long, Set<OrderItemDto>> getOrderItemsByOrderIds(Collection<Long> orderIds);
+
+    OrderItemDto getOrderItemById(Long orderId, Long orderItemId, Long userId);
 }
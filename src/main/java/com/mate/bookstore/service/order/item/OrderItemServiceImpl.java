@@ -7,13 +7,21 @@ import com.mate.bookstore.model.Book;
 import com.mate.bookstore.model.CartItem;
 import com.mate.bookstore.model.Order;
 import com.mate.bookstore.model.OrderItem;
+import com.mate.bookstore.repository.order.OrderItemOwnerRow;
 import com.mate.bookstore.repository.order.OrderItemRepository;
+import com.mate.bookstore.repository.order.OrderItemRow;
 import com.mate.bookstore.service.book.BookService;
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -25,29 +33,72 @@ public class OrderItemServiceImpl implements OrderItemService {
 
     @Override
     public Set<OrderItem> createOrderItemsFromCart(Set<CartItem> cartItems, Order order) {
+        Map<Long, Book> booksById = bookService.getBooksByIds(collectBookIds(cartItems));
         return cartItems.stream()
-                .map(cartItem -> convertCartItemToOrderItem(cartItem, order))
+                .map(cartItem -> convertCartItemToOrderItem(cartItem,
+                        booksById.get(cartItem.getBook().getId()), order))
                 .collect(Collectors.toSet());
     }
 
     @Override
-    public List<OrderItemDto> getOrderItemsForOrder(Order order) {
-        return order.getOrderItems().stream()
+    public Set<OrderItem> createOrderItems(Map<Long, Integer> quantitiesByBookId,
+                                           Order order) {
+        Map<Long, Book> booksById = bookService.getBooksByIds(quantitiesByBookId.keySet());
+        return quantitiesByBookId.entrySet().stream()
+                .map(entry -> {
+                    Book book = booksById.get(entry.getKey());
+                    return new OrderItem(null, order, book, entry.getValue(),
+                            calculateItemTotal(book, entry.getValue()));
+                })
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public List<OrderItemDto> getOrderItemsForOrder(Long orderId) {
+        return orderItemRepository.findRowsByOrderIdIn(List.of(orderId)).stream()
                 .map(orderItemMapper::toOrderItemDto)
                 .toList();
     }
 
+    /**
+     * Loads the items of all the orders with one query that reads book ids from the
+     * foreign key, without loading books or orders.
+     */
     @Override
-    public OrderItemDto getOrderItemById(Order order, Long orderItemId) {
-        return orderItemMapper.toOrderItemDto(findOrderItemFromOrder(order, orderItemId));
+    public Map<Long, Set<OrderItemDto>> getOrderItemsByOrderIds(Collection<Long> orderIds) {
+        Map<Long, Set<OrderItemDto>> itemsByOrderId = new HashMap<>();
+        if (orderIds.isEmpty()) {
+            return itemsByOrderId;
+        }
+        for (OrderItemRow row : orderItemRepository.findRowsByOrderIdIn(orderIds)) {
+            itemsByOrderId.computeIfAbsent(row.orderId(), id -> new LinkedHashSet<>())
+                    .add(orderItemMapper.toOrderItemDto(row));
+        }
+        return itemsByOrderId;
+    }
 
+    /**
+     * Looks the item up within the order together with the order's owner, so a missing
+     * item and a foreign order are both told apart with one query.
+     */
+    @Override
+    public OrderItemDto getOrderItemById(Long orderId, Long orderItemId, Long userId) {
+        OrderItemOwnerRow row = orderItemRepository
+                .findOwnerRowByIdAndOrderId(orderItemId, orderId)
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "Order item " + orderItemId + " not found in order " + orderId));
+        if (!row.userId().equals(userId)) {
+            throw new AccessDeniedException("Order with id " + orderId
+                    + " doesn't belong to user " + userId);
+        }
+        return orderItemMapper.toOrderItemDto(row);
     }
 
-    private OrderItem convertCartItemToOrderItem(CartItem cartItem, Order order) {
-        validateBookExists(cartItem);
-        BigDecimal total = calculateItemTotal(cartItem.getBook(),
-                cartItem.getQuantity());
-        return orderItemMapper.toOrderItem(cartItem, order, total);
+    private OrderItem convertCartItemToOrderItem(CartItem cartItem, Book book, Order order) {
+        BigDecimal total = calculateItemTotal(book, cartItem.getQuantity());
+        OrderItem orderItem = orderItemMapper.toOrderItem(cartItem, order, total);
+        orderItem.setBook(book);
+        return orderItem;
     }
 
     private BigDecimal calculateItemTotal(Book book, int quantity) {
@@ -57,20 +108,15 @@ public class OrderItemServiceImpl implements OrderItemService {
         return book.getPrice().multiply(new BigDecimal(quantity));
     }
 
-    private OrderItem findOrderItemFromOrder(Order order, Long orderItemId) {
-        return order.getOrderItems().stream()
-                .filter(item -> item.getId().equals(orderItemId))
-                .findFirst()
-                .orElseThrow(()
-                        -> new EntityNotFoundException(
-                        "Order item does not belong to the order"));
-    }
-
-    private void validateBookExists(CartItem cartItem) {
-        if (cartItem.getBook() == null || cartItem.getBook().getId() == null) {
-            throw new IllegalArgumentException(
-                    "Book in cart item must not be null and must have an ID");
+    private Set<Long> collectBookIds(Set<CartItem> cartItems) {
+        Set<Long> bookIds = new HashSet<>();
+        for (CartItem cartItem : cartItems) {
+            if (cartItem.getBook() == null || cartItem.getBook().getId() == null) {
+                throw new IllegalArgumentException(
+                        "Book in cart item must not be null and must have an ID");
+            }
+            bookIds.add(cartItem.getBook().getId());
         }
-        bookService.getBookById(cartItem.getBook().getId());
+        return bookIds;
     }
 }
@@ -0,0 +1,11 @@
+package com.mate.bookstore.service.order.request;
+
+import com.mate.bookstore.dto.order.CreateOrderRequestDto;
+import com.mate.bookstore.dto.order.OrderRequestDto;
+import com.mate.bookstore.model.User;
+
+public interface OrderRequestService {
+    OrderRequestDto submit(CreateOrderRequestDto requestDto, User user);
+
+    OrderRequestDto findById(Long id, User user);
+}
@@ -0,0 +1,61 @@
+package com.mate.bookstore.service.order.request;
+
+import com.mate.bookstore.dto.order.CreateOrderRequestDto;
+import com.mate.bookstore.dto.order.OrderRequestDto;
+import com.mate.bookstore.exception.EntityNotFoundException;
+import com.mate.bookstore.exception.ShoppingCartEmptyException;
+import com.mate.bookstore.mapper.OrderMapper;
+import com.mate.bookstore.model.CartItem;
+import com.mate.bookstore.model.OrderRequest;
+import com.mate.bookstore.model.OrderRequestItem;
+import com.mate.bookstore.model.ShoppingCart;
+import com.mate.bookstore.model.User;
+import com.mate.bookstore.repository.order.OrderRequestRepository;
+import com.mate.bookstore.service.shoppingcart.ShoppingCartService;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class OrderRequestServiceImpl implements OrderRequestService {
+    private final OrderRequestRepository orderRequestRepository;
+    private final OrderMapper orderMapper;
+    private final ShoppingCartService shoppingCartService;
+
+    /**
+     * Moves the cart contents into the request, so the order gets what the user had at
+     * submit time and later cart changes go to the next checkout.
+     */
+    @Override
+    @Transactional
+    public OrderRequestDto submit(CreateOrderRequestDto requestDto, User user) {
+        ShoppingCart shoppingCart = shoppingCartService.findShoppingCartByUser(user);
+        if (shoppingCart.getCartItems() == null || shoppingCart.getCartItems().isEmpty()) {
+            throw new ShoppingCartEmptyException();
+        }
+        OrderRequest orderRequest = new OrderRequest(user.getId(),
+                requestDto.shippingAddress());
+        Map<Long, Integer> quantitiesByBookId = new HashMap<>();
+        for (CartItem cartItem : shoppingCart.getCartItems()) {
+            quantitiesByBookId.merge(cartItem.getBook().getId(), cartItem.getQuantity(),
+                    Integer::sum);
+        }
+        quantitiesByBookId.forEach((bookId, quantity) ->
+                orderRequest.getItems().add(new OrderRequestItem(bookId, quantity)));
+        OrderRequestDto submitted = orderMapper.toOrderRequestDto(
+                orderRequestRepository.save(orderRequest));
+        shoppingCartService.clearShoppingCart(shoppingCart);
+        return submitted;
+    }
+
+    @Override
+    public OrderRequestDto findById(Long id, User user) {
+        return orderRequestRepository.findByIdAndUserId(id, user.getId())
+                .map(orderMapper::toOrderRequestDto)
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "Order request not found with id: " + id));
+    }
+}
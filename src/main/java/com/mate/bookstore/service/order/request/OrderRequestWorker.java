@@ -0,0 +1,258 @@
+package com.mate.bookstore.service.order.request;
+
+import com.mate.bookstore.dto.order.CreateOrderRequestDto;
+import com.mate.bookstore.dto.order.OrderDto;
+import com.mate.bookstore.dto.shoppingcart.CartBatchRequestDto;
+import com.mate.bookstore.dto.shoppingcart.CartItemOperationDto;
+import com.mate.bookstore.dto.shoppingcart.CartItemOperationDto.CartItemOperationType;
+import com.mate.bookstore.model.OrderRequest;
+import com.mate.bookstore.model.OrderRequestItem;
+import com.mate.bookstore.model.User;
+import com.mate.bookstore.repository.order.OrderRequestRepository;
+import com.mate.bookstore.repository.user.UserRepository;
+import com.mate.bookstore.service.book.BookService;
+import com.mate.bookstore.service.order.OrderService;
+import com.mate.bookstore.service.shoppingcart.ShoppingCartService;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Turns queued {@link OrderRequest}s into orders on {@code orders.async.workers} virtual
+ * threads. A worker locks a batch of pending rows with {@code FOR UPDATE SKIP LOCKED},
+ * so workers on any number of nodes never pick the same rows, marks them as claimed
+ * for {@code orders.async.claim-timeout} and commits. Each request then gets its own
+ * transaction, which creates the order from the cart contents stored with the request
+ * and completes the request only if the claim is still held. Requests of a worker that
+ * died are claimed again once their claim runs out.
+ *
+ * <p>A transient database error, such as a lock timeout or a deadlock, puts the request
+ * back to pending; it is attempted again after {@code orders.async.retry-backoff},
+ * doubled with every attempt, up to {@code orders.async.max-attempts} attempts. Any
+ * other error fails the request for good and adds its items back to the user's cart,
+ * so the checkout can be submitted again.
+ */
+@Service
+@Log4j2
+public class OrderRequestWorker {
+    private static final int MAX_ERROR_LENGTH = 255;
+    private static final int MAX_BACKOFF_DOUBLINGS = 10;
+    private final OrderRequestRepository orderRequestRepository;
+    private final UserRepository userRepository;
+    private final OrderService orderService;
+    private final ShoppingCartService shoppingCartService;
+    private final BookService bookService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int workers;
+    private final int batchSize;
+    private final Duration claimTimeout;
+    private final Duration pollInterval;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running;
+
+    public OrderRequestWorker(OrderRequestRepository orderRequestRepository,
+                              UserRepository userRepository,
+                              OrderService orderService,
+                              ShoppingCartService shoppingCartService,
+                              BookService bookService,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${orders.async.enabled:true}") boolean enabled,
+                              @Value("${orders.async.workers:4}") int workers,
+                              @Value("${orders.async.batch-size:10}") int batchSize,
+                              @Value("${orders.async.claim-timeout:PT1M}")
+                              Duration claimTimeout,
+                              @Value("${orders.async.poll-interval:PT1S}")
+                              Duration pollInterval,
+                              @Value("${orders.async.max-attempts:5}") int maxAttempts,
+                              @Value("${orders.async.retry-backoff:PT5S}")
+                              Duration retryBackoff) {
+        this.orderRequestRepository = orderRequestRepository;
+        this.userRepository = userRepository;
+        this.orderService = orderService;
+        this.shoppingCartService = shoppingCartService;
+        this.bookService = bookService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.claimTimeout = claimTimeout;
+        this.pollInterval = pollInterval;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            threads.add(Thread.ofVirtual().name("order-request-worker-" + i)
+                    .start(this::poll));
+        }
+        log.info("Started {} order request workers", workers);
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        threads.forEach(Thread::interrupt);
+        for (Thread thread : threads) {
+            thread.join(claimTimeout.toMillis());
+        }
+        threads.clear();
+    }
+
+    /**
+     * Claims and processes one batch.
+     *
+     * @return the number of requests claimed
+     */
+    public int processBatch() {
+        String claimToken = UUID.randomUUID().toString();
+        List<OrderRequest> claimed = transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<Long> ids = orderRequestRepository.lockClaimableIds(now, batchSize);
+            if (ids.isEmpty()) {
+                return List.of();
+            }
+            orderRequestRepository.claim(ids, claimToken, now.plus(claimTimeout));
+            return orderRequestRepository.findAllWithItemsByIdIn(ids);
+        });
+        claimed.forEach(orderRequest -> process(orderRequest, claimToken));
+        return claimed.size();
+    }
+
+    private void poll() {
+        while (running) {
+            try {
+                if (processBatch() == 0) {
+                    Thread.sleep(pollInterval);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Order request worker failed, retrying in {}", pollInterval, e);
+                try {
+                    Thread.sleep(pollInterval);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void process(OrderRequest orderRequest, String claimToken) {
+        try {
+            Boolean completed = transactionTemplate.execute(status -> {
+                User user = userRepository.getReferenceById(orderRequest.getUserId());
+                // requests queued before cart contents were stored with them
+                OrderDto order = orderRequest.getItems().isEmpty()
+                        ? orderService.createOrder(
+                                new CreateOrderRequestDto(orderRequest.getShippingAddress()), user)
+                        : orderService.createOrder(user, orderRequest.getShippingAddress(),
+                                quantities(orderRequest));
+                if (orderRequestRepository.complete(orderRequest.getId(), claimToken,
+                        order.getId()) == 0) {
+                    status.setRollbackOnly();
+                    return false;
+                }
+                return true;
+            });
+            if (!Boolean.TRUE.equals(completed)) {
+                log.warn("Claim on order request {} ran out before it was completed, "
+                        + "order rolled back", orderRequest.getId());
+            }
+        } catch (RuntimeException e) {
+            if (isTransient(e) && orderRequest.getAttempts() + 1 < maxAttempts) {
+                retryLater(orderRequest, claimToken, e);
+            } else {
+                fail(orderRequest, claimToken, e);
+            }
+        }
+    }
+
+    private boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    private void retryLater(OrderRequest orderRequest, String claimToken, RuntimeException e) {
+        Duration backoff = retryBackoff.multipliedBy(
+                1L << Math.min(orderRequest.getAttempts(), MAX_BACKOFF_DOUBLINGS));
+        log.info("Order request {} failed on attempt {}, retrying in {}: {}",
+                orderRequest.getId(), orderRequest.getAttempts() + 1, backoff, e.getMessage());
+        orderRequestRepository.retryLater(orderRequest.getId(), claimToken,
+                Instant.now().plus(backoff), errorMessage(e));
+    }
+
+    /**
+     * Fails the request and adds its items that still exist back to the user's cart in
+     * the same transaction. If the cart can't be restored the request is failed anyway.
+     */
+    private void fail(OrderRequest orderRequest, String claimToken, RuntimeException e) {
+        log.info("Order request {} failed: {}", orderRequest.getId(), e.getMessage());
+        String error = errorMessage(e);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (orderRequestRepository.fail(orderRequest.getId(), claimToken, error) == 1) {
+                    restoreCart(orderRequest);
+                }
+            });
+        } catch (RuntimeException restoreError) {
+            log.warn("Items of order request {} were not returned to the cart",
+                    orderRequest.getId(), restoreError);
+            orderRequestRepository.fail(orderRequest.getId(), claimToken, error);
+        }
+    }
+
+    private void restoreCart(OrderRequest orderRequest) {
+        Set<Long> existingIds = bookService.findExistingIds(quantities(orderRequest).keySet());
+        List<CartItemOperationDto> operations = orderRequest.getItems().stream()
+                .filter(item -> existingIds.contains(item.getBookId()))
+                .map(item -> new CartItemOperationDto(CartItemOperationType.ADD,
+                        item.getBookId(), null, item.getQuantity()))
+                .toList();
+        if (!operations.isEmpty()) {
+            shoppingCartService.applyBatch(
+                    userRepository.getReferenceById(orderRequest.getUserId()),
+                    new CartBatchRequestDto(operations));
+        }
+    }
+
+    private Map<Long, Integer> quantities(OrderRequest orderRequest) {
+        Map<Long, Integer> quantitiesByBookId = new HashMap<>();
+        for (OrderRequestItem item : orderRequest.getItems()) {
+            quantitiesByBookId.put(item.getBookId(), item.getQuantity());
+        }
+        return quantitiesByBookId;
+    }
+
+    private String errorMessage(RuntimeException e) {
+        String message = e.getMessage() == null ? e.getClass().getSimpleName()
+                : e.getMessage();
+        return message.length() > MAX_ERROR_LENGTH
+                ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
@@ -0,0 +1,44 @@
+package com.mate.bookstore.service.scheduling;
+
+import com.mate.bookstore.repository.scheduling.SchedulerLockRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Cluster-wide leases on named scheduled jobs, kept as rows of {@code scheduler_locks}.
+ * A lease is taken with a single conditional update, so the row lock decides which node
+ * wins; the holder extends it by acquiring again before it runs out. The first node to
+ * need a lease creates its row with a plain insert, which fails for every other node.
+ */
+@Service
+@RequiredArgsConstructor
+public class SchedulerLockService {
+    private final String owner = UUID.randomUUID().toString();
+    private final SchedulerLockRepository schedulerLockRepository;
+
+    /**
+     * Takes or extends the lease when it is free, expired or already ours.
+     *
+     * @return whether this node holds the lease for {@code lease} from now
+     */
+    public boolean tryAcquire(String name, Duration lease) {
+        Instant now = Instant.now();
+        if (schedulerLockRepository.acquire(name, owner, now, now.plus(lease)) == 1) {
+            return true;
+        }
+        try {
+            schedulerLockRepository.insert(name, owner, now.plus(lease));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    public void release(String name) {
+        schedulerLockRepository.release(name, owner, Instant.now());
+    }
+}
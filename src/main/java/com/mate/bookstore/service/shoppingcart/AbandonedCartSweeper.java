@@ -0,0 +1,116 @@
+package com.mate.bookstore.service.shoppingcart;
+
+import com.mate.bookstore.repository.shoppingcart.CartItemRepository;
+import com.mate.bookstore.service.scheduling.SchedulerLockService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Deletes cart items nobody touched for {@code cart.sweeper.max-idle}. Items are walked
+ * in id order in batches of {@code cart.sweeper.batch-size}, each deleted in its own
+ * short transaction with a pause in between, and a run stops after
+ * {@code cart.sweeper.max-duration}. Only the node holding the sweeper lease runs it.
+ */
+@Service
+@Log4j2
+public class AbandonedCartSweeper {
+    static final String LOCK_NAME = "abandoned-cart-sweeper";
+    private final CartItemRepository cartItemRepository;
+    private final SchedulerLockService schedulerLockService;
+    private final boolean enabled;
+    private final Duration maxIdle;
+    private final int batchSize;
+    private final Duration pause;
+    private final Duration maxDuration;
+    private final Duration lease;
+    private final Counter removedItems;
+    private final Timer runTime;
+
+    public AbandonedCartSweeper(CartItemRepository cartItemRepository,
+                                SchedulerLockService schedulerLockService,
+                                MeterRegistry meterRegistry,
+                                @Value("${cart.sweeper.enabled:true}") boolean enabled,
+                                @Value("${cart.sweeper.max-idle:P30D}") Duration maxIdle,
+                                @Value("${cart.sweeper.batch-size:500}") int batchSize,
+                                @Value("${cart.sweeper.pause:PT0.2S}") Duration pause,
+                                @Value("${cart.sweeper.max-duration:PT5M}")
+                                Duration maxDuration) {
+        this.cartItemRepository = cartItemRepository;
+        this.schedulerLockService = schedulerLockService;
+        this.enabled = enabled;
+        this.maxIdle = maxIdle;
+        this.batchSize = batchSize;
+        this.pause = pause;
+        this.maxDuration = maxDuration;
+        this.lease = maxDuration.plus(pause).multipliedBy(2);
+        this.removedItems = Counter.builder("cart.sweeper.removed")
+                .description("Abandoned cart items deleted by the sweeper")
+                .register(meterRegistry);
+        this.runTime = Timer.builder("cart.sweeper.duration")
+                .description("Time spent in sweeper runs")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${cart.sweeper.interval:PT1H}",
+            initialDelayString = "${cart.sweeper.interval:PT1H}")
+    public void sweepIfLeader() {
+        if (!enabled || !schedulerLockService.tryAcquire(LOCK_NAME, lease)) {
+            return;
+        }
+        try {
+            sweep();
+        } finally {
+            schedulerLockService.release(LOCK_NAME);
+        }
+    }
+
+    public SweepResult sweep() {
+        final long startedAt = System.nanoTime();
+        Instant cutoff = Instant.now().minus(maxIdle);
+        long afterId = 0;
+        int removed = 0;
+        while (true) {
+            List<Long> ids = cartItemRepository.findIdsModifiedBefore(cutoff, afterId,
+                    PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            removed += cartItemRepository.deleteAllByIdInModifiedBefore(ids, cutoff);
+            afterId = ids.get(ids.size() - 1);
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+            if (ids.size() < batchSize || elapsed.compareTo(maxDuration) >= 0
+                    || !schedulerLockService.tryAcquire(LOCK_NAME, lease) || !pause()) {
+                break;
+            }
+        }
+        SweepResult result = new SweepResult(removed,
+                Duration.ofNanos(System.nanoTime() - startedAt));
+        removedItems.increment(result.removed());
+        runTime.record(result.duration());
+        log.info("Swept {} abandoned cart items idle since {} in {} ms", result.removed(),
+                cutoff, result.duration().toMillis());
+        return result;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pause);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public record SweepResult(int removed, Duration duration) {
+    }
+}
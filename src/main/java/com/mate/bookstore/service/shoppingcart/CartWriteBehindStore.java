@@ -0,0 +1,449 @@
+package com.mate.bookstore.service.shoppingcart;
+
+import com.mate.bookstore.repository.shoppingcart.CartItemRow;
+import com.mate.bookstore.repository.shoppingcart.ShoppingCartRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Optional write-behind store for cart quantities. When enabled, carts are kept in memory
+ * as {@link CartItemRow} projections, quantity changes are applied there and appended to a
+ * local journal, and the latest quantity of every changed item is written to
+ * {@code cart_items} in one batch on a schedule and before a cart is changed through the
+ * database. The journal is replayed on startup, so a crash loses at most what was not yet
+ * appended. Every node has its own store, so this mode expects a user's requests to stay
+ * on one node.
+ *
+ * <p>Each cart has its own lock, and database writes run outside of them, so reads and
+ * updates never wait for a write-back. Write-backs are serialized with each other, and
+ * cart loads wait for the one in flight so they don't read rows it is about to change.
+ *
+ * <p>While a transaction that changes a cart through the database is running, that cart
+ * is neither cached nor updated in memory, and it is invalidated again once the
+ * transaction completes. Every invalidation bumps the cart's generation, and a load only
+ * caches what it read if the generation is still the one it started with, so a snapshot
+ * read before such a change committed never ends up in memory.
+ */
+@Service
+@Log4j2
+public class CartWriteBehindStore {
+    private static final String UPDATE_QUANTITY =
+            "UPDATE cart_items SET quantity = ?, last_modified = ? WHERE id = ?";
+    private static final int GENERATION_SLOTS = 1024;
+    private final ShoppingCartRepository shoppingCartRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxCarts;
+    private final Path journalPath;
+    private final ConcurrentMap<Long, CartState> carts = new ConcurrentHashMap<>();
+    private final Queue<CartState> evictionQueue = new ConcurrentLinkedQueue<>();
+    private final ConcurrentMap<Long, PendingQuantity> dirtyQuantities =
+            new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Integer> changingCarts = new ConcurrentHashMap<>();
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_SLOTS);
+    private final ReadWriteLock writeBackLock = new ReentrantReadWriteLock();
+    private final Object journalLock = new Object();
+    private BufferedWriter journal;
+
+    public CartWriteBehindStore(ShoppingCartRepository shoppingCartRepository,
+                                JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${cart.write-behind.enabled:false}") boolean enabled,
+                                @Value("${cart.write-behind.max-carts:10000}") int maxCarts,
+                                @Value("${cart.write-behind.journal:cart-journal.log}")
+                                Path journalPath) {
+        this.shoppingCartRepository = shoppingCartRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(
+                TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.maxCarts = maxCarts;
+        this.journalPath = journalPath;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the user's cart from memory, loading it with one projection query on a miss.
+     * An empty list means the user has no cart.
+     */
+    public List<CartItemRow> getRows(Long userId) {
+        if (!enabled) {
+            return shoppingCartRepository.findCartItemRowsByUserId(userId);
+        }
+        CartState cart = getCart(userId);
+        if (cart == null) {
+            return List.of();
+        }
+        synchronized (cart) {
+            return List.copyOf(cart.rows);
+        }
+    }
+
+    /**
+     * Adds {@code quantity} to the item in memory. Returns {@code false} when the store is
+     * disabled, the cart is being changed through the database, or the item is not in the
+     * user's cart, leaving the caller to go to the database (which also reports missing
+     * and foreign items).
+     */
+    public boolean updateQuantity(Long userId, Long cartItemId, int quantity) {
+        if (!enabled) {
+            return false;
+        }
+        while (true) {
+            if (changingCarts.containsKey(userId)) {
+                return false;
+            }
+            CartState cart = getCart(userId);
+            if (cart == null) {
+                return false;
+            }
+            synchronized (cart) {
+                if (!cart.evicted) {
+                    return cart.add(cartItemId, quantity);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the user's pending quantities and drops the cart from memory. Called before
+     * the cart is changed or read through the database directly. Inside a transaction the
+     * cart stays out of memory until the transaction completes.
+     */
+    public void flushAndEvict(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            changingCarts.merge(userId, 1, Integer::sum);
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            remove(userId);
+                            changingCarts.computeIfPresent(userId,
+                                    (id, changes) -> changes == 1 ? null : changes - 1);
+                        }
+                    });
+        }
+        remove(userId);
+        Map<Long, PendingQuantity> pending = new HashMap<>();
+        dirtyQuantities.forEach((cartItemId, quantity) -> {
+            if (quantity.userId().equals(userId)) {
+                pending.put(cartItemId, quantity);
+            }
+        });
+        writeBack(pending);
+    }
+
+    /**
+     * Drops the cart from memory without writing it, for carts that were just cleared.
+     */
+    public void evict(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        remove(userId);
+        synchronized (journalLock) {
+            dirtyQuantities.values().removeIf(quantity -> quantity.userId().equals(userId));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cart.write-behind.flush-interval:PT5S}",
+            initialDelayString = "${cart.write-behind.flush-interval:PT5S}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        evictionQueue.removeIf(cart -> cart.evicted);
+        Map<Long, PendingQuantity> pending = new HashMap<>(dirtyQuantities);
+        writeBack(pending);
+        if (!pending.isEmpty()) {
+            log.debug("Flushed {} buffered cart item quantities", pending.size());
+        }
+    }
+
+    @PostConstruct
+    public void replayJournal() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (journalLock) {
+            try {
+                if (Files.exists(journalPath)) {
+                    Map<Long, Integer> replayed = new HashMap<>();
+                    for (String line : Files.readAllLines(journalPath,
+                            StandardCharsets.UTF_8)) {
+                        String[] fields = line.split(",");
+                        if (fields.length == 2) {
+                            replayed.put(Long.valueOf(fields[0]),
+                                    Integer.valueOf(fields[1]));
+                        }
+                    }
+                    write(replayed);
+                    log.info("Replayed {} cart item quantities from {}", replayed.size(),
+                            journalPath);
+                }
+                journal = Files.newBufferedWriter(journalPath, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Can't open cart journal " + journalPath, e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        flush();
+        synchronized (journalLock) {
+            journal.close();
+        }
+    }
+
+    /**
+     * Returns the cart held in memory or loads it, overlaying quantities that were changed
+     * while the cart was evicted and are not written yet. A cart loaded while it is being
+     * changed through the database, or invalidated since the load started, is returned
+     * already evicted instead of being cached. Returns {@code null} for users without a
+     * cart.
+     */
+    private CartState getCart(Long userId) {
+        CartState cart = carts.get(userId);
+        if (cart != null) {
+            cart.referenced = true;
+            return cart;
+        }
+        final int slot = generationSlot(userId);
+        final long generation = generations.get(slot);
+        List<CartItemRow> loaded;
+        Lock lock = writeBackLock.readLock();
+        lock.lock();
+        try {
+            loaded = shoppingCartRepository.findCartItemRowsByUserId(userId).stream()
+                    .map(this::withPendingQuantity)
+                    .toList();
+        } finally {
+            lock.unlock();
+        }
+        if (loaded.isEmpty()) {
+            return null;
+        }
+        CartState created = new CartState(userId, loaded);
+        cart = carts.compute(userId, (id, cached) -> {
+            if (cached != null) {
+                return cached;
+            }
+            return changingCarts.containsKey(userId) || generations.get(slot) != generation
+                    ? null : created;
+        });
+        if (cart == null) {
+            created.evicted = true;
+            return created;
+        }
+        if (cart != created) {
+            return cart;
+        }
+        evictionQueue.add(created);
+        evictOverflow();
+        return created;
+    }
+
+    private CartItemRow withPendingQuantity(CartItemRow row) {
+        PendingQuantity pending = row.cartItemId() == null ? null
+                : dirtyQuantities.get(row.cartItemId());
+        return pending == null ? row : row.withQuantity(pending.quantity());
+    }
+
+    /**
+     * Drops carts in second-chance order: a cart used since it was last looked at is
+     * moved to the back of the queue once. Pending quantities of dropped carts stay in
+     * {@code dirtyQuantities} for the next flush.
+     */
+    private void evictOverflow() {
+        while (carts.size() > maxCarts) {
+            CartState cart = evictionQueue.poll();
+            if (cart == null) {
+                return;
+            }
+            if (cart.evicted) {
+                continue;
+            }
+            if (cart.referenced) {
+                cart.referenced = false;
+                evictionQueue.add(cart);
+                continue;
+            }
+            if (carts.remove(cart.userId, cart)) {
+                synchronized (cart) {
+                    cart.evicted = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops the cart and bumps its generation in one step, so no load that started
+     * before can cache its snapshot afterwards.
+     */
+    private void remove(Long userId) {
+        carts.compute(userId, (id, cart) -> {
+            generations.incrementAndGet(generationSlot(userId));
+            if (cart != null) {
+                synchronized (cart) {
+                    cart.evicted = true;
+                }
+            }
+            return null;
+        });
+    }
+
+    private int generationSlot(Long userId) {
+        return Long.hashCode(userId) & (GENERATION_SLOTS - 1);
+    }
+
+    /**
+     * Writes the quantities and then forgets those still pending with the written value,
+     * so a newer quantity set while the batch was being written stays for the next flush.
+     */
+    private void writeBack(Map<Long, PendingQuantity> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Lock lock = writeBackLock.writeLock();
+        lock.lock();
+        try {
+            Map<Long, Integer> quantities = new HashMap<>();
+            pending.forEach((cartItemId, quantity) ->
+                    quantities.put(cartItemId, quantity.quantity()));
+            write(quantities);
+            synchronized (journalLock) {
+                pending.forEach((cartItemId, quantity) ->
+                        dirtyQuantities.remove(cartItemId, quantity));
+                compactJournal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void write(Map<Long, Integer> quantities) {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> batch = quantities.entrySet().stream()
+                .map(entry -> new Object[]{entry.getValue(), now, entry.getKey()})
+                .toList();
+        transactionTemplate.executeWithoutResult(
+                status -> jdbcTemplate.batchUpdate(UPDATE_QUANTITY, batch));
+    }
+
+    /**
+     * Journals the quantity and marks it pending. Called with the cart's lock held.
+     */
+    private void record(Long userId, Long cartItemId, int quantity) {
+        synchronized (journalLock) {
+            try {
+                journal.write(cartItemId + "," + quantity);
+                journal.newLine();
+                journal.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Can't append to cart journal " + journalPath,
+                        e);
+            }
+            dirtyQuantities.put(cartItemId, new PendingQuantity(userId, quantity));
+        }
+    }
+
+    /**
+     * Rewrites the journal with only the quantities that are still pending. Called with
+     * the journal lock held.
+     */
+    private void compactJournal() {
+        Path compacted = journalPath.resolveSibling(journalPath.getFileName() + ".tmp");
+        try {
+            journal.close();
+            try (BufferedWriter writer = Files.newBufferedWriter(compacted,
+                    StandardCharsets.UTF_8)) {
+                for (Map.Entry<Long, PendingQuantity> entry : dirtyQuantities.entrySet()) {
+                    writer.write(entry.getKey() + "," + entry.getValue().quantity());
+                    writer.newLine();
+                }
+            }
+            Files.move(compacted, journalPath, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            journal = Files.newBufferedWriter(journalPath, StandardCharsets.UTF_8,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't compact cart journal " + journalPath, e);
+        }
+    }
+
+    private record PendingQuantity(Long userId, int quantity) {
+    }
+
+    /**
+     * A cart held in memory. Rows and the evicted flag are guarded by the cart's monitor.
+     */
+    private final class CartState {
+        private final Long userId;
+        private final List<CartItemRow> rows;
+        private volatile boolean evicted;
+        private volatile boolean referenced = true;
+
+        private CartState(Long userId, List<CartItemRow> rows) {
+            this.userId = userId;
+            this.rows = new ArrayList<>(rows);
+        }
+
+        private boolean add(Long cartItemId, int quantity) {
+            for (int i = 0; i < rows.size(); i++) {
+                CartItemRow row = rows.get(i);
+                if (cartItemId.equals(row.cartItemId())) {
+                    int updatedQuantity = row.quantity() + quantity;
+                    record(userId, cartItemId, updatedQuantity);
+                    rows.set(i, row.withQuantity(updatedQuantity));
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
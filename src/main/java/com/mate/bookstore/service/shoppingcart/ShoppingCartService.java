@@ -1,6 +1,7 @@
 package com.mate.bookstore.service.shoppingcart;
 
 import com.mate.bookstore.dto.shoppingcart.AddToCartRequestDto;
+import com.mate.bookstore.dto.shoppingcart.CartBatchRequestDto;
 import com.mate.bookstore.dto.shoppingcart.ShoppingCartDto;
 import com.mate.bookstore.dto.shoppingcart.UpdateCartItemRequestDto;
 import com.mate.bookstore.model.ShoppingCart;
@@ -18,6 +19,8 @@ public interface ShoppingCartService {
 
     void deleteFromShoppingCart(Long cartItemId, User user);
 
+    ShoppingCartDto applyBatch(User user, CartBatchRequestDto cartBatchRequestDto);
+
     ShoppingCart findShoppingCartByUser(User user);
 
     void clearShoppingCart(ShoppingCart shoppingCart);
@@ -1,16 +1,22 @@
 package com.mate.bookstore.service.shoppingcart;
 
 import com.mate.bookstore.dto.shoppingcart.AddToCartRequestDto;
+import com.mate.bookstore.dto.shoppingcart.CartBatchRequestDto;
+import com.mate.bookstore.dto.shoppingcart.CartItemOperationDto;
 import com.mate.bookstore.dto.shoppingcart.ShoppingCartDto;
 import com.mate.bookstore.dto.shoppingcart.UpdateCartItemRequestDto;
 import com.mate.bookstore.exception.EntityNotFoundException;
 import com.mate.bookstore.mapper.ShoppingCartMapper;
-import com.mate.bookstore.model.CartItem;
 import com.mate.bookstore.model.ShoppingCart;
 import com.mate.bookstore.model.User;
+import com.mate.bookstore.repository.shoppingcart.CartItemRow;
 import com.mate.bookstore.repository.shoppingcart.ShoppingCartRepository;
 import com.mate.bookstore.service.shoppingcart.item.CartItemService;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -22,49 +28,78 @@ public class ShoppingCartServiceImpl implements ShoppingCartService {
     private final ShoppingCartRepository shoppingCartRepository;
     private final ShoppingCartMapper shoppingCartMapper;
     private final CartItemService cartItemService;
+    private final CartWriteBehindStore cartWriteBehindStore;
 
     @Override
     public ShoppingCartDto getShoppingCart(User user) {
-        ShoppingCart shoppingCart = findShoppingCartByUser(user);
-        return shoppingCartMapper.toDto(shoppingCart);
+        return loadShoppingCartDto(user.getId());
     }
 
     @Override
     @Transactional
     public ShoppingCartDto addBookToShoppingCart(User user,
                                                  AddToCartRequestDto addToCartRequestDto) {
-        ShoppingCart shoppingCart = findShoppingCart(user);
-        if (shoppingCart == null) {
-            shoppingCart = createShoppingCart(user);
-        }
-
-        CartItem cartItem = cartItemService.createCartItem(addToCartRequestDto.bookId(),
-                addToCartRequestDto.quantity(), shoppingCart);
-        Set<CartItem> cartItems = shoppingCart.getCartItems();
-        cartItems.add(cartItem);
-        shoppingCart.setCartItems(cartItems);
-        shoppingCart = shoppingCartRepository.save(shoppingCart);
-        return shoppingCartMapper.toDto(shoppingCart);
+        cartWriteBehindStore.flushAndEvict(user.getId());
+        Long shoppingCartId = shoppingCartRepository.findIdByUserId(user.getId())
+                .orElseGet(() -> createShoppingCart(user).getId());
+        cartItemService.addToCart(shoppingCartId, addToCartRequestDto.bookId(),
+                addToCartRequestDto.quantity());
+        return loadShoppingCartDto(user.getId());
     }
 
     @Override
     @Transactional
     public ShoppingCartDto updateBookQuantity(Long cartItemId, User user,
                                               UpdateCartItemRequestDto updateCartItemRequestDto) {
-        CartItem cartItem = cartItemService
-                .updateCartItem(cartItemId, user, updateCartItemRequestDto.quantity());
-
-        return shoppingCartMapper.toDto(cartItem.getShoppingCart());
+        if (!cartWriteBehindStore.updateQuantity(user.getId(), cartItemId,
+                updateCartItemRequestDto.quantity())) {
+            cartWriteBehindStore.flushAndEvict(user.getId());
+            cartItemService.updateCartItem(cartItemId, user,
+                    updateCartItemRequestDto.quantity());
+        }
+        return loadShoppingCartDto(user.getId());
     }
 
     @Override
     @Transactional
     public void deleteFromShoppingCart(Long cartItemId, User user) {
+        cartWriteBehindStore.flushAndEvict(user.getId());
         cartItemService.deleteCartItem(cartItemId, user);
     }
 
+    /**
+     * Applies the operations grouped by type, each group as one statement: updates first,
+     * then removals, then additions. Any item that is not in the user's cart fails the
+     * whole batch.
+     */
+    @Override
+    @Transactional
+    public ShoppingCartDto applyBatch(User user, CartBatchRequestDto cartBatchRequestDto) {
+        Map<Long, Integer> additions = new LinkedHashMap<>();
+        Map<Long, Integer> updates = new LinkedHashMap<>();
+        Set<Long> removals = new LinkedHashSet<>();
+        for (CartItemOperationDto operation : cartBatchRequestDto.operations()) {
+            switch (operation.type()) {
+                case ADD -> additions.merge(operation.bookId(), operation.quantity(), Integer::sum);
+                case UPDATE -> updates.merge(operation.cartItemId(), operation.quantity(),
+                        Integer::sum);
+                case REMOVE -> removals.add(operation.cartItemId());
+                default -> throw new IllegalArgumentException(
+                        "Unsupported operation " + operation.type());
+            }
+        }
+        cartWriteBehindStore.flushAndEvict(user.getId());
+        Long shoppingCartId = shoppingCartRepository.findIdByUserId(user.getId())
+                .orElseGet(() -> createShoppingCart(user).getId());
+        cartItemService.updateCartItems(shoppingCartId, updates);
+        cartItemService.deleteCartItems(shoppingCartId, removals);
+        cartItemService.addAllToCart(shoppingCartId, additions);
+        return loadShoppingCartDto(user.getId());
+    }
+
     @Override
     public ShoppingCart findShoppingCartByUser(User user) {
+        cartWriteBehindStore.flushAndEvict(user.getId());
         ShoppingCart shoppingCart = findShoppingCart(user);
         if (shoppingCart == null) {
             throw new EntityNotFoundException("Shopping cart not found");
@@ -79,7 +114,18 @@ public class ShoppingCartServiceImpl implements ShoppingCartService {
 
     @Override
     public void clearShoppingCart(ShoppingCart shoppingCart) {
-        cartItemService.deleteAllCartItems(shoppingCart.getCartItems());
+        cartItemService.deleteAllByShoppingCartId(shoppingCart.getId());
+        cartWriteBehindStore.evict(shoppingCart.getUser().getId());
+    }
+
+    private ShoppingCartDto loadShoppingCartDto(Long userId) {
+        List<CartItemRow> rows = cartWriteBehindStore.isEnabled()
+                ? cartWriteBehindStore.getRows(userId)
+                : shoppingCartRepository.findCartItemRowsByUserId(userId);
+        if (rows.isEmpty()) {
+            throw new EntityNotFoundException("Shopping cart not found");
+        }
+        return shoppingCartMapper.toDto(rows);
     }
 
     private ShoppingCart createShoppingCart(User user) {
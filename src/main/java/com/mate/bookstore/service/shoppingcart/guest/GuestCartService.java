@@ -0,0 +1,15 @@
+package com.mate.bookstore.service.shoppingcart.guest;
+
+import com.mate.bookstore.dto.shoppingcart.AddToCartRequestDto;
+import com.mate.bookstore.dto.shoppingcart.GuestCartDto;
+import com.mate.bookstore.model.User;
+
+public interface GuestCartService {
+    GuestCartDto getGuestCart(String token);
+
+    GuestCartDto addBookToGuestCart(String token, AddToCartRequestDto addToCartRequestDto);
+
+    GuestCartDto removeBookFromGuestCart(String token, Long bookId);
+
+    void mergeIntoShoppingCart(User user, String token);
+}
@@ -0,0 +1,110 @@
+package com.mate.bookstore.service.shoppingcart.guest;
+
+import com.mate.bookstore.dto.book.BookDto;
+import com.mate.bookstore.dto.shoppingcart.AddToCartRequestDto;
+import com.mate.bookstore.dto.shoppingcart.CartBatchRequestDto;
+import com.mate.bookstore.dto.shoppingcart.CartItemOperationDto;
+import com.mate.bookstore.dto.shoppingcart.CartItemOperationDto.CartItemOperationType;
+import com.mate.bookstore.dto.shoppingcart.GuestCartDto;
+import com.mate.bookstore.dto.shoppingcart.GuestCartItemDto;
+import com.mate.bookstore.exception.EntityNotFoundException;
+import com.mate.bookstore.exception.GuestCartLimitExceededException;
+import com.mate.bookstore.model.User;
+import com.mate.bookstore.security.JwtUtil;
+import com.mate.bookstore.service.book.BookService;
+import com.mate.bookstore.service.shoppingcart.ShoppingCartService;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Guest carts live only in signed tokens held by the client, so browsing anonymously
+ * never writes to the database. Book details come from the book cache.
+ */
+@Service
+@RequiredArgsConstructor
+public class GuestCartServiceImpl implements GuestCartService {
+    private static final int MAX_BOOKS = 100;
+    private final JwtUtil jwtUtil;
+    private final BookService bookService;
+    private final ShoppingCartService shoppingCartService;
+
+    @Override
+    public GuestCartDto getGuestCart(String token) {
+        return toDto(token, readCart(token));
+    }
+
+    @Override
+    public GuestCartDto addBookToGuestCart(String token,
+                                           AddToCartRequestDto addToCartRequestDto) {
+        bookService.findById(addToCartRequestDto.bookId());
+        Map<Long, Integer> cart = readCart(token);
+        cart.merge(addToCartRequestDto.bookId(), addToCartRequestDto.quantity(), Integer::sum);
+        if (cart.size() > MAX_BOOKS) {
+            throw new GuestCartLimitExceededException(MAX_BOOKS);
+        }
+        return toDto(jwtUtil.generateGuestCartToken(cart), cart);
+    }
+
+    @Override
+    public GuestCartDto removeBookFromGuestCart(String token, Long bookId) {
+        Map<Long, Integer> cart = readCart(token);
+        cart.remove(bookId);
+        return toDto(jwtUtil.generateGuestCartToken(cart), cart);
+    }
+
+    /**
+     * Adds every book of the guest cart that still exists to the user's cart as one batch.
+     * Books are checked against the database, like the batch itself does, so a deleted
+     * book that is still cached is skipped rather than failing the merge.
+     */
+    @Override
+    public void mergeIntoShoppingCart(User user, String token) {
+        Map<Long, Integer> cart = readCart(token);
+        if (cart.isEmpty()) {
+            return;
+        }
+        Set<Long> existingIds = bookService.findExistingIds(cart.keySet());
+        List<CartItemOperationDto> operations = cart.entrySet().stream()
+                .filter(entry -> existingIds.contains(entry.getKey()))
+                .map(entry -> new CartItemOperationDto(CartItemOperationType.ADD,
+                        entry.getKey(), null, entry.getValue()))
+                .toList();
+        if (!operations.isEmpty()) {
+            shoppingCartService.applyBatch(user, new CartBatchRequestDto(operations));
+        }
+    }
+
+    private Map<Long, Integer> readCart(String token) {
+        return token == null || token.isBlank()
+                ? new LinkedHashMap<>()
+                : jwtUtil.parseGuestCartToken(token);
+    }
+
+    private GuestCartDto toDto(String token, Map<Long, Integer> cart) {
+        List<GuestCartItemDto> cartItems = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (Map.Entry<Long, Integer> entry : cart.entrySet()) {
+            BookDto book = findBook(entry.getKey());
+            if (book == null) {
+                continue;
+            }
+            cartItems.add(new GuestCartItemDto(book.getId(), book.getTitle(), entry.getValue()));
+            total = total.add(book.getPrice().multiply(BigDecimal.valueOf(entry.getValue())));
+        }
+        return new GuestCartDto(token, cartItems, total);
+    }
+
+    private BookDto findBook(Long bookId) {
+        try {
+            return bookService.findById(bookId);
+        } catch (EntityNotFoundException e) {
+            return null;
+        }
+    }
+}
@@ -1,16 +1,21 @@
 package com.mate.bookstore.service.shoppingcart.item;
 
-import com.mate.bookstore.model.CartItem;
-import com.mate.bookstore.model.ShoppingCart;
 import com.mate.bookstore.model.User;
+import java.util.Map;
 import java.util.Set;
 
 public interface CartItemService {
-    CartItem createCartItem(Long bookId, int quantity, ShoppingCart shoppingCart);
+    void addToCart(Long shoppingCartId, Long bookId, int quantity);
 
-    CartItem updateCartItem(Long id, User user, int quantity);
+    void addAllToCart(Long shoppingCartId, Map<Long, Integer> quantitiesByBookId);
+
+    void updateCartItems(Long shoppingCartId, Map<Long, Integer> quantitiesByCartItemId);
+
+    void deleteCartItems(Long shoppingCartId, Set<Long> cartItemIds);
+
+    void updateCartItem(Long id, User user, int quantity);
 
     void deleteCartItem(Long id, User user);
 
-    void deleteAllCartItems(Set<CartItem> cartItems);
+    void deleteAllByShoppingCartId(Long shoppingCartId);
 }
@@ -1,13 +1,11 @@
 package com.mate.bookstore.service.shoppingcart.item;
 
 import com.mate.bookstore.exception.EntityNotFoundException;
-import com.mate.bookstore.model.Book;
-import com.mate.bookstore.model.CartItem;
-import com.mate.bookstore.model.ShoppingCart;
 import com.mate.bookstore.model.User;
+import com.mate.bookstore.repository.shoppingcart.CartItemOwner;
 import com.mate.bookstore.repository.shoppingcart.CartItemRepository;
 import com.mate.bookstore.service.book.BookService;
-import java.util.Optional;
+import java.util.Map;
 import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.AccessDeniedException;
@@ -20,61 +18,77 @@ public class CartItemServiceImpl implements CartItemService {
     private final CartItemRepository cartItemRepository;
 
     @Override
-    public CartItem createCartItem(Long bookId, int quantity, ShoppingCart shoppingCart) {
-        Book book = bookService.getBookById(bookId);
-        Optional<CartItem> cartItemExists = getCartItemIfExists(bookId, shoppingCart);
+    public void addToCart(Long shoppingCartId, Long bookId, int quantity) {
+        bookService.findById(bookId);
+        cartItemRepository.addQuantity(shoppingCartId, bookId, quantity);
+    }
 
-        if (cartItemExists.isPresent()) {
-            return updateCartItem(cartItemExists.get().getId(), shoppingCart.getUser(), quantity);
+    @Override
+    public void addAllToCart(Long shoppingCartId, Map<Long, Integer> quantitiesByBookId) {
+        if (quantitiesByBookId.isEmpty()) {
+            return;
         }
-        CartItem cartItem = new CartItem();
-        cartItem.setBook(book);
-        cartItem.setQuantity(quantity);
-        cartItem.setShoppingCart(shoppingCart);
+        bookService.getBooksByIds(quantitiesByBookId.keySet());
+        cartItemRepository.addQuantities(shoppingCartId, quantitiesByBookId);
+    }
 
-        return cartItemRepository.save(cartItem);
+    @Override
+    public void updateCartItems(Long shoppingCartId, Map<Long, Integer> quantitiesByCartItemId) {
+        int updated = cartItemRepository.incrementQuantities(shoppingCartId,
+                quantitiesByCartItemId);
+        if (updated != quantitiesByCartItemId.size()) {
+            throw cartItemsNotFound(shoppingCartId, quantitiesByCartItemId.keySet());
+        }
+    }
+
+    @Override
+    public void deleteCartItems(Long shoppingCartId, Set<Long> cartItemIds) {
+        if (cartItemIds.isEmpty()) {
+            return;
+        }
+        int deleted = cartItemRepository.deleteAllByShoppingCartIdAndIdIn(shoppingCartId,
+                cartItemIds);
+        if (deleted != cartItemIds.size()) {
+            throw cartItemsNotFound(shoppingCartId, cartItemIds);
+        }
     }
 
     @Override
-    public CartItem updateCartItem(Long id, User user, int quantity) {
-        CartItem cartItem = getValidatedCartItem(id, user);
-        cartItem.setQuantity(cartItem.getQuantity() + quantity);
-        return cartItemRepository.save(cartItem);
+    public void updateCartItem(Long id, User user, int quantity) {
+        Long shoppingCartId = findOwnedShoppingCartId(id, user);
+        cartItemRepository.incrementQuantities(shoppingCartId, Map.of(id, quantity));
     }
 
     @Override
     public void deleteCartItem(Long id, User user) {
-        cartItemRepository.delete(getValidatedCartItem(id, user));
+        Long shoppingCartId = findOwnedShoppingCartId(id, user);
+        cartItemRepository.deleteAllByShoppingCartIdAndIdIn(shoppingCartId, Set.of(id));
     }
 
     @Override
-    public void deleteAllCartItems(Set<CartItem> cartItems) {
-        cartItemRepository.deleteAll(cartItems);
+    public void deleteAllByShoppingCartId(Long shoppingCartId) {
+        cartItemRepository.deleteAllByShoppingCartId(shoppingCartId);
+    }
+
+    private EntityNotFoundException cartItemsNotFound(Long shoppingCartId,
+                                                      Set<Long> cartItemIds) {
+        return new EntityNotFoundException("Some of cart items " + cartItemIds
+                + " not found in shopping cart " + shoppingCartId);
     }
 
-    private CartItem findCartItemById(Long id) {
-        return cartItemRepository.findById(id)
+    /**
+     * Reads the item's cart and owner ids in one lookup instead of loading the item,
+     * its cart and the cart's user.
+     */
+    private Long findOwnedShoppingCartId(Long id, User user) {
+        CartItemOwner owner = cartItemRepository.findOwnerById(id)
                 .orElseThrow(()
                         -> new EntityNotFoundException(
                         "CartItem not found with id: " + id));
-    }
-
-    private void validateCartItemOwnership(CartItem cartItem, User user) {
-        if (!cartItem.getShoppingCart().getUser().getId().equals(user.getId())) {
-            throw new AccessDeniedException("Cart item with id " + cartItem.getId()
+        if (!owner.userId().equals(user.getId())) {
+            throw new AccessDeniedException("Cart item with id " + id
                     + " doesn't belong to user " + user.getId());
         }
-    }
-
-    private CartItem getValidatedCartItem(Long id, User user) {
-        CartItem cartItem = findCartItemById(id);
-        validateCartItemOwnership(cartItem, user);
-        return cartItem;
-    }
-
-    private Optional<CartItem> getCartItemIfExists(Long bookId, ShoppingCart shoppingCart) {
-        return shoppingCart.getCartItems().stream()
-                .filter(cartItem -> cartItem.getBook().getId().equals(bookId))
-                .findFirst();
+        return owner.shoppingCartId();
     }
 }
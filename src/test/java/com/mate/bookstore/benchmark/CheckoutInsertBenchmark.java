@@ -0,0 +1,158 @@
+package com.mate.bookstore.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts one order with {@code items} order items the way Hibernate does with
+ * IDENTITY keys (one round trip per row to read the generated id) and with ids taken
+ * from a pooled-lo block (all rows sent as JDBC batches). Runs against in-memory H2,
+ * so it measures per-statement overhead only; network latency to a real database
+ * widens the gap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CheckoutInsertBenchmark {
+    private static final int ALLOCATION_SIZE = 50;
+    @Param({"5", "30"})
+    private int items;
+    private Connection connection;
+    private long nextId;
+    private long blockEnd;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:checkout;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE identity_orders (id BIGINT AUTO_INCREMENT "
+                    + "PRIMARY KEY, user_id BIGINT, total DECIMAL(19,2))");
+            statement.execute("CREATE TABLE identity_order_items (id BIGINT AUTO_INCREMENT "
+                    + "PRIMARY KEY, order_id BIGINT, book_id BIGINT, quantity INT, "
+                    + "price DECIMAL(19,2))");
+            statement.execute("CREATE TABLE pooled_orders (id BIGINT PRIMARY KEY, "
+                    + "user_id BIGINT, total DECIMAL(19,2))");
+            statement.execute("CREATE TABLE pooled_order_items (id BIGINT PRIMARY KEY, "
+                    + "order_id BIGINT, book_id BIGINT, quantity INT, price DECIMAL(19,2))");
+            statement.execute("CREATE SEQUENCE pooled_seq START WITH 1 INCREMENT BY "
+                    + ALLOCATION_SIZE);
+        }
+        connection.setAutoCommit(false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public long identityInserts() throws SQLException {
+        long orderId;
+        try (PreparedStatement insertOrder = connection.prepareStatement(
+                "INSERT INTO identity_orders (user_id, total) VALUES (?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            insertOrder.setLong(1, 1L);
+            insertOrder.setBigDecimal(2, BigDecimal.TEN);
+            insertOrder.executeUpdate();
+            orderId = generatedId(insertOrder);
+        }
+        try (PreparedStatement insertItem = connection.prepareStatement(
+                "INSERT INTO identity_order_items (order_id, book_id, quantity, price) "
+                        + "VALUES (?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < items; i++) {
+                bindItem(insertItem, 1, orderId, i);
+                insertItem.executeUpdate();
+                generatedId(insertItem);
+            }
+        }
+        connection.commit();
+        return orderId;
+    }
+
+    @Benchmark
+    public long pooledBatchedInserts() throws SQLException {
+        long orderId = nextId();
+        try (PreparedStatement insertOrder = connection.prepareStatement(
+                "INSERT INTO pooled_orders (id, user_id, total) VALUES (?, ?, ?)")) {
+            insertOrder.setLong(1, orderId);
+            insertOrder.setLong(2, 1L);
+            insertOrder.setBigDecimal(3, BigDecimal.TEN);
+            insertOrder.executeUpdate();
+        }
+        try (PreparedStatement insertItem = connection.prepareStatement(
+                "INSERT INTO pooled_order_items (id, order_id, book_id, quantity, price) "
+                        + "VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < items; i++) {
+                insertItem.setLong(1, nextId());
+                bindItem(insertItem, 2, orderId, i);
+                insertItem.addBatch();
+            }
+            insertItem.executeBatch();
+        }
+        connection.commit();
+        return orderId;
+    }
+
+    private long nextId() throws SQLException {
+        if (nextId == blockEnd) {
+            try (Statement statement = connection.createStatement();
+                    ResultSet resultSet = statement.executeQuery(
+                            "SELECT NEXT VALUE FOR pooled_seq")) {
+                resultSet.next();
+                nextId = resultSet.getLong(1);
+                blockEnd = nextId + ALLOCATION_SIZE;
+            }
+        }
+        return nextId++;
+    }
+
+    private void bindItem(PreparedStatement statement, int firstIndex, long orderId, int item)
+            throws SQLException {
+        statement.setLong(firstIndex, orderId);
+        statement.setLong(firstIndex + 1, item + 1L);
+        statement.setInt(firstIndex + 2, 1);
+        statement.setBigDecimal(firstIndex + 3, BigDecimal.ONE);
+    }
+
+    private long generatedId(PreparedStatement statement) throws SQLException {
+        try (ResultSet keys = statement.getGeneratedKeys()) {
+            keys.next();
+            return keys.getLong(1);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CheckoutInsertBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,95 @@
+package com.mate.bookstore.benchmark;
+
+import com.mate.bookstore.cache.ExpiringCache;
+import com.mate.bookstore.model.Role;
+import com.mate.bookstore.model.User;
+import com.mate.bookstore.security.JwtUtil;
+import com.mate.bookstore.security.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-request cost of authenticating a bearer token the old way (a fresh
+ * parser per claim, two signature checks) with a single {@link JwtUtil#verify} call,
+ * with the verified-token cache disabled (zero ttl) and enabled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+    private static final String SECRET = "my-very-strong-secret-32-chars-long-1234";
+    private SecretKey key;
+    private JwtUtil jwtUtil;
+    private JwtUtil cachingJwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        jwtUtil = new JwtUtil(new ExpiringCache<>(1, Duration.ZERO));
+        cachingJwtUtil = new JwtUtil(new ExpiringCache<>(1000, Duration.ofHours(24)));
+        ReflectionTestUtils.setField(cachingJwtUtil, "expiration", 3_600_000L);
+        ReflectionTestUtils.setField(cachingJwtUtil, "secretString", SECRET);
+        cachingJwtUtil.init();
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtUtil, "secretString", SECRET);
+        jwtUtil.init();
+        token = jwtUtil.generateToken(User.builder()
+                .id(1L)
+                .email("reader@example.com")
+                .roles(Set.of(new Role(Role.RoleName.ROLE_USER)))
+                .build());
+    }
+
+    @Benchmark
+    public void parserPerClaim(Blackhole blackhole) {
+        Claims expiryClaims = Jwts.parser().verifyWith(key).build()
+                .parseSignedClaims(token).getPayload();
+        blackhole.consume(expiryClaims.getExpiration().before(new Date()));
+        Claims subjectClaims = Jwts.parser().verifyWith(key).build()
+                .parseSignedClaims(token).getPayload();
+        blackhole.consume(subjectClaims.getSubject());
+    }
+
+    @Benchmark
+    public VerifiedToken singleVerify() {
+        return jwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public VerifiedToken cachedVerify() {
+        return cachingJwtUtil.verify(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,143 @@
+package com.mate.bookstore.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Concurrent checkouts of one book, each taking one copy with a conditional decrement
+ * and recording a reservation before committing. {@code singleRow} keeps the stock in
+ * one row, so every transaction waits for the previous one's row lock;
+ * {@code striped} spreads it over {@code stripes} rows and starts at a random one, the
+ * way {@code InventoryServiceImpl} does. In-memory H2 commits for free, so
+ * {@code commitMicros} parks the thread before the commit to stand in for the round
+ * trip and log flush a real database spends while still holding the row lock.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class StockContentionBenchmark {
+    private static final String URL = "jdbc:h2:mem:stock;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000";
+    private static final long INITIAL_STOCK = Long.MAX_VALUE / 2;
+    @Param({"8"})
+    private int stripes;
+    @Param({"0", "200"})
+    private long commitMicros;
+    private Connection setupConnection;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        setupConnection = DriverManager.getConnection(URL);
+        try (Statement statement = setupConnection.createStatement()) {
+            statement.execute("CREATE TABLE single_stock (book_id BIGINT PRIMARY KEY, "
+                    + "quantity BIGINT)");
+            statement.execute("CREATE TABLE striped_stock (book_id BIGINT, stripe INT, "
+                    + "quantity BIGINT, PRIMARY KEY (book_id, stripe))");
+            statement.execute("CREATE TABLE reservations (id BIGINT AUTO_INCREMENT "
+                    + "PRIMARY KEY, book_id BIGINT, stripe INT, quantity INT)");
+            statement.execute("INSERT INTO single_stock VALUES (1, " + INITIAL_STOCK + ")");
+            for (int stripe = 0; stripe < stripes; stripe++) {
+                statement.execute("INSERT INTO striped_stock VALUES (1, " + stripe + ", "
+                        + INITIAL_STOCK / stripes + ")");
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = setupConnection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        setupConnection.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Session {
+        private Connection connection;
+        private PreparedStatement takeSingle;
+        private PreparedStatement takeStriped;
+        private PreparedStatement insertReservation;
+
+        @Setup(Level.Trial)
+        public void open() throws SQLException {
+            connection = DriverManager.getConnection(URL);
+            connection.setAutoCommit(false);
+            takeSingle = connection.prepareStatement("UPDATE single_stock "
+                    + "SET quantity = quantity - 1 WHERE book_id = 1 AND quantity >= 1");
+            takeStriped = connection.prepareStatement("UPDATE striped_stock "
+                    + "SET quantity = quantity - 1 "
+                    + "WHERE book_id = 1 AND stripe = ? AND quantity >= 1");
+            insertReservation = connection.prepareStatement("INSERT INTO reservations "
+                    + "(book_id, stripe, quantity) VALUES (1, ?, 1)");
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public int singleRow(Session session) throws SQLException {
+        int taken = session.takeSingle.executeUpdate();
+        reserve(session, 0);
+        return taken;
+    }
+
+    @Benchmark
+    public int striped(Session session) throws SQLException {
+        int start = ThreadLocalRandom.current().nextInt(stripes);
+        for (int i = 0; i < stripes; i++) {
+            int stripe = (start + i) % stripes;
+            session.takeStriped.setInt(1, stripe);
+            if (session.takeStriped.executeUpdate() == 1) {
+                reserve(session, stripe);
+                return 1;
+            }
+        }
+        session.connection.rollback();
+        return 0;
+    }
+
+    private void reserve(Session session, int stripe) throws SQLException {
+        session.insertReservation.setInt(1, stripe);
+        session.insertReservation.executeUpdate();
+        if (commitMicros > 0) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(commitMicros));
+        }
+        session.connection.commit();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(StockContentionBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
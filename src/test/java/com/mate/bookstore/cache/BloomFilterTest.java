@@ -0,0 +1,47 @@
+package com.mate.bookstore.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.UUID;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("Verify added values are always reported as possibly present")
+    void mightContain_AddedValues_ReturnsTrue() {
+        // Given
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        String[] values = new String[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = UUID.randomUUID().toString();
+            filter.put(values[i]);
+        }
+
+        // When & Then
+        for (String value : values) {
+            assertThat(filter.mightContain(value)).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Verify the false positive rate stays close to the configured one")
+    void mightContain_UnknownValues_RarelyReturnsTrue() {
+        // Given
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.put("revoked-" + i);
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("active-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        assertThat(falsePositives).isLessThan(300);
+    }
+}
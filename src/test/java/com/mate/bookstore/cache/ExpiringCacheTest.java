@@ -0,0 +1,132 @@
+package com.mate.bookstore.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpiringCacheTest {
+
+    @Test
+    @DisplayName("Entries expire once their time to live has passed")
+    void get_AfterTtl_ReturnsNull() {
+        // Given
+        MutableClock clock = new MutableClock();
+        ExpiringCache<Long, String> cache = new ExpiringCache<>(10, Duration.ofSeconds(30), clock);
+        cache.put(1L, "one");
+
+        // When
+        String beforeExpiry = cache.get(1L);
+        clock.advance(Duration.ofSeconds(31));
+        String afterExpiry = cache.get(1L);
+
+        // Then
+        assertThat(beforeExpiry).isEqualTo("one");
+        assertThat(afterExpiry).isNull();
+        assertThat(cache.hitCount()).isEqualTo(1);
+        assertThat(cache.missCount()).isEqualTo(1);
+        assertThat(cache.expirationCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Explicit expiry earlier than the ttl takes precedence")
+    void put_WithEarlierExpiry_ExpiresAtGivenInstant() {
+        // Given
+        MutableClock clock = new MutableClock();
+        ExpiringCache<Long, String> cache = new ExpiringCache<>(10, Duration.ofMinutes(10), clock);
+        cache.put(1L, "one", clock.millis() + 1_000);
+
+        // When
+        clock.advance(Duration.ofSeconds(1));
+
+        // Then
+        assertThat(cache.get(1L)).isNull();
+    }
+
+    @Test
+    @DisplayName("Least recently used entry is evicted when the cache is full")
+    void put_OverCapacity_EvictsLeastRecentlyUsed() {
+        // Given
+        ExpiringCache<Long, String> cache = new ExpiringCache<>(1, Duration.ofMinutes(1));
+        cache.put(1L, "one");
+
+        // When
+        cache.put(2L, "two");
+
+        // Then
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.get(2L)).isEqualTo("two");
+        assertThat(cache.evictionCount()).isEqualTo(1);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Loader is only called on a miss and null results are not cached")
+    void getWithLoader_MissThenHit_LoadsOnce() {
+        // Given
+        ExpiringCache<Long, String> cache = new ExpiringCache<>(10, Duration.ofMinutes(1));
+        int[] loads = {0};
+
+        // When
+        cache.get(1L, key -> {
+            loads[0]++;
+            return "one";
+        });
+        String cached = cache.get(1L, key -> "other");
+        String missing = cache.get(2L, key -> null);
+
+        // Then
+        assertThat(cached).isEqualTo("one");
+        assertThat(missing).isNull();
+        assertThat(loads[0]).isEqualTo(1);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("A value loaded before the key was invalidated is returned but not cached")
+    void getWithLoader_InvalidatedDuringLoad_DoesNotCacheStaleValue() {
+        // Given
+        ExpiringCache<Long, String> cache = new ExpiringCache<>(10, Duration.ofMinutes(1));
+
+        // When
+        String stale = cache.get(1L, key -> {
+            String snapshot = "old";
+            cache.invalidate(key);
+            return snapshot;
+        });
+        String reloaded = cache.get(1L, key -> "new");
+
+        // Then
+        assertThat(stale).isEqualTo("old");
+        assertThat(reloaded).isEqualTo("new");
+        assertThat(cache.get(1L)).isEqualTo("new");
+        assertThat(cache.putCount()).isEqualTo(1);
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
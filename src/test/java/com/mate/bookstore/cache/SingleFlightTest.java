@@ -0,0 +1,121 @@
+package com.mate.bookstore.cache;
+
+import com.mate.bookstore.exception.EntityNotFoundException;
+import com.mate.bookstore.exception.LoadTimeoutException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightTest {
+
+    @Test
+    @DisplayName("Concurrent callers for the same key share one load")
+    void load_ConcurrentCallers_RunsLoaderOnce() throws Exception {
+        // Given
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>(Duration.ofSeconds(5));
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+        // When
+        List<Future<String>> results = new ArrayList<>();
+        results.add(executor.submit(() -> singleFlight.load(1L, key -> {
+            loads.incrementAndGet();
+            loaderStarted.countDown();
+            await(releaseLoader);
+            return "book-1";
+        })));
+        assertThat(loaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 1; i < callers; i++) {
+            results.add(executor.submit(() -> singleFlight.load(1L, key -> {
+                loads.incrementAndGet();
+                return "unexpected";
+            })));
+        }
+        while (singleFlight.coalescedCount() < callers - 1) {
+            Thread.onSpinWait();
+        }
+        releaseLoader.countDown();
+
+        // Then
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("book-1");
+        }
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(singleFlight.loadCount()).isEqualTo(1);
+        assertThat(singleFlight.coalescedCount()).isEqualTo(callers - 1);
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Waiters receive the loader's exception")
+    void load_LoaderFails_PropagatesFailureToWaiters() throws Exception {
+        // Given
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>(Duration.ofSeconds(5));
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // When
+        Future<String> leader = executor.submit(() -> singleFlight.load(1L, key -> {
+            loaderStarted.countDown();
+            await(releaseLoader);
+            throw new EntityNotFoundException("Book not found with id 1");
+        }));
+        assertThat(loaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<String> waiter = executor.submit(() -> singleFlight.load(1L, key -> "unexpected"));
+        while (singleFlight.coalescedCount() < 1) {
+            Thread.onSpinWait();
+        }
+        releaseLoader.countDown();
+
+        // Then
+        Exception leaderFailure = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        Exception waiterFailure = assertThrows(Exception.class, () -> waiter.get(5, TimeUnit.SECONDS));
+        assertThat(leaderFailure).hasCauseInstanceOf(EntityNotFoundException.class);
+        assertThat(waiterFailure).hasCauseInstanceOf(EntityNotFoundException.class);
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Waiters give up after the timeout")
+    void load_SlowLoader_WaiterTimesOut() throws Exception {
+        // Given
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>(Duration.ofMillis(50));
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.submit(() -> singleFlight.load(1L, key -> {
+            loaderStarted.countDown();
+            await(releaseLoader);
+            return "book-1";
+        }));
+        assertThat(loaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When & Then
+        assertThrows(LoadTimeoutException.class, () -> singleFlight.load(1L, key -> "unexpected"));
+        assertThat(singleFlight.timeoutCount()).isEqualTo(1);
+        releaseLoader.countDown();
+        executor.shutdownNow();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.mate.bookstore.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mate.bookstore.dto.book.BookDto;
 import com.mate.bookstore.dto.book.CreateBookRequestDto;
+import com.mate.bookstore.dto.book.CursorPageDto;
 import lombok.SneakyThrows;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.junit.jupiter.api.AfterAll;
@@ -25,6 +27,8 @@ import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.SQLException;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -138,6 +142,54 @@ class BookControllerTest {
         ).andExpect(status().isConflict());
     }
 
+    @WithMockUser(username = "user", roles = {"USER"})
+    @Test
+    @DisplayName("Get all books should return the requested page sorted by title")
+    void getAll_WithPageable_ShouldReturnSortedPage() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/books")
+                        .param("page", "0")
+                        .param("size", "2")
+                        .param("sort", "title,asc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].title").value("Clean Code"))
+                .andExpect(jsonPath("$.content[1].title").value("Design Patterns"));
+    }
+
+    @WithMockUser(username = "user", roles = {"USER"})
+    @Test
+    @DisplayName("Scrolling with the returned cursor should continue after the last title")
+    void scrollAll_WithCursor_ShouldReturnNextSlice() throws Exception {
+        // Given
+        MvcResult firstResult = mockMvc.perform(get("/api/books/scroll")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("Clean Code"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andReturn();
+        CursorPageDto<BookDto> firstSlice = objectMapper.readValue(
+                firstResult.getResponse().getContentAsString(),
+                new TypeReference<>() {});
+        assertTrue(firstSlice.nextCursor() != null && !firstSlice.nextCursor().isBlank());
+
+        // When & Then
+        mockMvc.perform(get("/api/books/scroll")
+                        .param("cursor", firstSlice.nextCursor())
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("Design Patterns"));
+    }
+
+    @WithMockUser(username = "user", roles = {"USER"})
+    @Test
+    @DisplayName("Scrolling with a malformed cursor should return 400 Bad Request")
+    void scrollAll_WithInvalidCursor_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/books/scroll")
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
     @WithMockUser(username = "user", roles = {"USER"})
     @Test
     @DisplayName("Get book with non-existing ID should return 404 Not Found")
@@ -0,0 +1,171 @@
+package com.mate.bookstore.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mate.bookstore.cache.ExpiringCache;
+import com.mate.bookstore.dto.book.BookDto;
+import com.mate.bookstore.dto.shoppingcart.AddToCartRequestDto;
+import com.mate.bookstore.dto.shoppingcart.GuestCartDto;
+import com.mate.bookstore.dto.user.UserLoginRequestDto;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class GuestCartControllerTest {
+    protected static MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private WebApplicationContext applicationContext;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private ExpiringCache<Long, BookDto> bookCache;
+
+    @BeforeEach
+    void beforeEach() throws SQLException {
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(applicationContext)
+                .apply(springSecurity())
+                .build();
+        teardown(dataSource);
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            ScriptUtils.executeSqlScript(
+                    connection,
+                    new ClassPathResource("database/add-default-shopping-cart.sql")
+            );
+        }
+    }
+
+    @AfterEach
+    void afterEach() throws SQLException {
+        teardown(dataSource);
+        bookCache.invalidateAll();
+    }
+
+    @SneakyThrows
+    private static void teardown(DataSource datasource) throws SQLException {
+        try (Connection connection = datasource.getConnection()) {
+            connection.setAutoCommit(true);
+            ScriptUtils.executeSqlScript(
+                    connection,
+                    new ClassPathResource("database/remove-default-shopping-cart.sql")
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("Add books to guest cart without login - should keep contents in the token")
+    void addBookToGuestCart_Anonymous_ShouldReturnSignedCart() throws Exception {
+        // Given
+        AddToCartRequestDto requestDto = new AddToCartRequestDto(1L, 2);
+
+        // When
+        MvcResult result = mockMvc.perform(post("/api/cart/guest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        GuestCartDto guestCart = objectMapper.readValue(
+                result.getResponse().getContentAsString(), GuestCartDto.class);
+
+        // Then
+        assertThat(guestCart.token()).isNotBlank();
+        mockMvc.perform(post("/api/cart/guest")
+                        .header(GuestCartController.GUEST_CART_HEADER, guestCart.token())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new AddToCartRequestDto(1L, 1))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.cartItems[0].bookTitle").value("Test Book Title"))
+                .andExpect(jsonPath("$.cartItems[0].quantity").value(3))
+                .andExpect(jsonPath("$.total").value(59.97));
+    }
+
+    @Test
+    @DisplayName("Get guest cart with tampered token - should return 401")
+    void getGuestCart_TamperedToken_ShouldReturnUnauthorized() throws Exception {
+        // Given
+        MvcResult result = mockMvc.perform(post("/api/cart/guest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new AddToCartRequestDto(1L, 1))))
+                .andReturn();
+        String token = objectMapper.readValue(
+                result.getResponse().getContentAsString(), GuestCartDto.class).token();
+
+        // When & Then
+        mockMvc.perform(get("/api/cart/guest")
+                        .header(GuestCartController.GUEST_CART_HEADER, token + "x"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("Login with a guest cart - should merge existing books into the user's cart")
+    void login_WithGuestCart_ShouldMergeExistingBooks() throws Exception {
+        // Given
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("UPDATE users SET password = ? WHERE id = 1",
+                passwordEncoder.encode("password123"));
+        jdbcTemplate.update("INSERT INTO books (id, title, price, author, isbn, is_deleted) "
+                + "VALUES (2, 'Deleted Book', 9.99, 'Test Author', '1234567890122', false)");
+        MvcResult first = mockMvc.perform(post("/api/cart/guest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new AddToCartRequestDto(1L, 3))))
+                .andReturn();
+        String token = objectMapper.readValue(
+                first.getResponse().getContentAsString(), GuestCartDto.class).token();
+        MvcResult second = mockMvc.perform(post("/api/cart/guest")
+                        .header(GuestCartController.GUEST_CART_HEADER, token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new AddToCartRequestDto(2L, 1))))
+                .andReturn();
+        token = objectMapper.readValue(
+                second.getResponse().getContentAsString(), GuestCartDto.class).token();
+        // deleted behind the book cache's back, so the cached copy is still served
+        jdbcTemplate.update("UPDATE books SET is_deleted = true WHERE id = 2");
+
+        // When
+        mockMvc.perform(post("/api/auth/login")
+                        .header(GuestCartController.GUEST_CART_HEADER, token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UserLoginRequestDto(
+                                "testuser@example.com", "password123"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").isNotEmpty());
+
+        // Then
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT CONCAT(book_id, ':', quantity) FROM cart_items "
+                        + "WHERE shopping_cart_id = 1 ORDER BY book_id", String.class))
+                .containsExactly("1:5");
+    }
+}
@@ -0,0 +1,552 @@
+package com.mate.bookstore.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mate.bookstore.dto.order.CreateOrderRequestDto;
+import com.mate.bookstore.dto.order.OrderDto;
+import com.mate.bookstore.dto.order.OrderRequestDto;
+import com.mate.bookstore.dto.order.UpdateOrderStatusRequestDto;
+import com.mate.bookstore.dto.order.UpdateOrderStatusesRequestDto;
+import com.mate.bookstore.model.OrderRequest;
+import com.mate.bookstore.model.OrderStatus;
+import com.mate.bookstore.model.User;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class OrderControllerTest {
+    protected static MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private WebApplicationContext applicationContext;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void beforeEach() throws SQLException {
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(applicationContext)
+                .apply(springSecurity())
+                .build();
+        teardown(dataSource);
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            ScriptUtils.executeSqlScript(
+                    connection,
+                    new ClassPathResource("database/add-default-shopping-cart.sql")
+            );
+        }
+    }
+
+    @AfterEach
+    void afterEach() throws SQLException {
+        teardown(dataSource);
+    }
+
+    @SneakyThrows
+    private static void teardown(DataSource datasource) throws SQLException {
+        try (Connection connection = datasource.getConnection()) {
+            connection.setAutoCommit(true);
+            ScriptUtils.executeSqlScript(
+                    connection,
+                    new ClassPathResource("database/remove-orders.sql")
+            );
+            ScriptUtils.executeSqlScript(
+                    connection,
+                    new ClassPathResource("database/remove-default-shopping-cart.sql")
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("Checkout creates the order with its items and empties the cart")
+    void createOrder_CartWithItems_CreatesOrderAndClearsCart() throws Exception {
+        // Given
+        User testUser = new User();
+        testUser.setId(1L);
+        testUser.setEmail("testuser@example.com");
+        CreateOrderRequestDto requestDto = new CreateOrderRequestDto("221B Baker Street");
+
+        // When
+        mockMvc.perform(post("/api/orders")
+                        .with(user(testUser))
+                        .content(objectMapper.writeValueAsString(requestDto))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.userId").value(1L))
+                .andExpect(jsonPath("$.total").value(39.98))
+                .andExpect(jsonPath("$.status").value("PENDING"))
+                .andExpect(jsonPath("$.orderItems[0].bookId").value(1L))
+                .andExpect(jsonPath("$.orderItems[0].quantity").value(2));
+
+        // Then
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM cart_items WHERE shopping_cart_id = 1", Integer.class))
+                .isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM order_items", Integer.class))
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Checkout with an empty cart returns 400 Bad Request")
+    void createOrder_EmptyCart_ReturnsBadRequest() throws Exception {
+        // Given
+        User testUser = new User();
+        testUser.setId(1L);
+        testUser.setEmail("testuser@example.com");
+        new JdbcTemplate(dataSource).update("DELETE FROM cart_items");
+
+        // When & Then
+        mockMvc.perform(post("/api/orders")
+                        .with(user(testUser))
+                        .content(objectMapper.writeValueAsString(
+                                new CreateOrderRequestDto("221B Baker Street")))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Checkout takes the ordered quantity from the book's stock stripes")
+    void createOrder_EnoughStock_ReservesStock() throws Exception {
+        // Given
+        User testUser = new User();
+        testUser.setId(1L);
+        testUser.setEmail("testuser@example.com");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO inventory_stripes (book_id, stripe, quantity) "
+                + "VALUES (1, 0, 1), (1, 1, 1), (1, 2, 1)");
+
+        // When
+        mockMvc.perform(post("/api/orders")
+                        .with(user(testUser))
+                        .content(objectMapper.writeValueAsString(
+                                new CreateOrderRequestDto("221B Baker Street")))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated());
+
+        // Then
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT SUM(quantity) FROM inventory_stripes WHERE book_id = 1", Integer.class))
+                .isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT SUM(quantity) FROM stock_reservations WHERE status = 'RESERVED'",
+                Integer.class))
+                .isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Checkout beyond available stock returns 409 Conflict and changes nothing")
+    void createOrder_NotEnoughStock_ReturnsConflict() throws Exception {
+        // Given
+        User testUser = new User();
+        testUser.setId(1L);
+        testUser.setEmail("testuser@example.com");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO inventory_stripes (book_id, stripe, quantity) "
+                + "VALUES (1, 0, 1)");
+
+        // When
+        mockMvc.perform(post("/api/orders")
+                        .with(user(testUser))
+                        .content(objectMapper.writeValueAsString(
+                                new CreateOrderRequestDto("221B Baker Street")))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict());
+
+        // Then
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT quantity FROM inventory_stripes WHERE book_id = 1", Integer.class))
+                .isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Integer.class))
+                .isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM cart_items WHERE shopping_cart_id = 1", Integer.class))
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Retry with the same Idempotency-Key returns the first order without a new one")
+    void createOrder_RetryWithIdempotencyKey_ReturnsSameOrder() throws Exception {
+        // Given
+        User testUser = new User();
+        testUser.setId(1L);
+        testUser.setEmail("testuser@example.com");
+        String content = objectMapper.writeValueAsString(
+                new CreateOrderRequestDto("221B Baker Street"));
+        MvcResult first = mockMvc.perform(post("/api/orders")
+                        .with(user(testUser))
+                        .header(OrderController.IDEMPOTENCY_KEY_HEADER, "checkout-1")
+                        .content(content)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andReturn();
+        OrderDto firstOrder = objectMapper.readValue(
+                first.getResponse().getContentAsString(), OrderDto.class);
+
+        // When
+        mockMvc.perform(post("/api/orders")
+                        .with(user(testUser))
+                        .header(OrderController.IDEMPOTENCY_KEY_HEADER, "checkout-1")
+                        .content(content)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(firstOrder.getId()))
+                .andExpect(jsonPath("$.total").value(39.98));
+
+        // Then
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Integer.class))
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Checkout waiting on a key held elsewhere returns the response stored there")
+    void createOrder_KeyCompletedByOtherRequest_ReturnsStoredResponse() throws Exception {
+        // Given
+        User testUser = new User();
+        testUser.setId(1L);
+        testUser.setEmail("testuser@example.com");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        Instant now = Instant.now();
+        jdbcTemplate.update("INSERT INTO idempotency_keys (user_id, idempotency_key, "
+                        + "claim_token, created_at, expires_at) VALUES (1, ?, ?, ?, ?)",
+                "checkout-2", "other-node", Timestamp.from(now),
+                Timestamp.from(now.plus(Duration.ofDays(1))));
+        String storedResponse = objectMapper.writeValueAsString(new OrderDto(42L, 1L,
+                Set.of(), LocalDateTime.now(), new BigDecimal("19.99"), OrderStatus.PENDING));
+
+        // When
+        CompletableFuture<MvcResult> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return mockMvc.perform(post("/api/orders")
+                                .with(user(testUser))
+                                .header(OrderController.IDEMPOTENCY_KEY_HEADER, "checkout-2")
+                                .content(objectMapper.writeValueAsString(
+                                        new CreateOrderRequestDto("221B Baker Street")))
+                                .contentType(MediaType.APPLICATION_JSON))
+                        .andReturn();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(300);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                jdbcTemplate.update("UPDATE idempotency_keys SET order_id = 42, response = ? "
+                        + "WHERE idempotency_key = ?", storedResponse, "checkout-2"));
+        MvcResult result = waiting.get(10, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(result.getResponse().getStatus()).isEqualTo(201);
+        assertThat(objectMapper.readValue(result.getResponse().getContentAsString(),
+                OrderDto.class).getId()).isEqualTo(42L);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Integer.class))
+                .isZero();
+    }
+
+    @Test
+    @DisplayName("Queued checkout takes the cart as submitted and is ordered by a worker")
+    void submitOrderRequest_ValidRequest_CompletesAsynchronously() throws Exception {
+        // Given
+        User testUser = new User();
+        testUser.setId(1L);
+        testUser.setEmail("testuser@example.com");
+
+        // When
+        MvcResult accepted = mockMvc.perform(post("/api/orders/requests")
+                        .with(user(testUser))
+                        .content(objectMapper.writeValueAsString(
+                                new CreateOrderRequestDto("221B Baker Street")))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").value("PENDING"))
+                .andReturn();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM cart_items WHERE shopping_cart_id = 1", Integer.class))
+                .isZero();
+        mockMvc.perform(post("/api/orders/requests")
+                        .with(user(testUser))
+                        .content(objectMapper.writeValueAsString(
+                                new CreateOrderRequestDto("221B Baker Street")))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        jdbcTemplate.update("INSERT INTO cart_items (id, shopping_cart_id, book_id, quantity, "
+                + "last_modified) VALUES (2, 1, 1, 5, CURRENT_TIMESTAMP)");
+
+        // Then
+        String location = accepted.getResponse().getHeader("Location");
+        assertThat(location).isNotNull();
+        OrderRequestDto orderRequest = awaitOrderRequest(URI.create(location).getPath(),
+                testUser);
+        assertThat(orderRequest.status()).isEqualTo(OrderRequest.Status.COMPLETED);
+        assertThat(jdbcTemplate.queryForObject("SELECT id FROM orders", Long.class))
+                .isEqualTo(orderRequest.orderId());
+        assertThat(jdbcTemplate.queryForObject("SELECT quantity FROM order_items",
+                Integer.class)).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT quantity FROM cart_items WHERE shopping_cart_id = 1", Integer.class))
+                .isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Queued checkout that runs out of stock fails and returns its items to the cart")
+    void submitOrderRequest_NotEnoughStock_FailsAndRestoresCart() throws Exception {
+        // Given
+        User testUser = new User();
+        testUser.setId(1L);
+        testUser.setEmail("testuser@example.com");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO inventory_stripes (book_id, stripe, quantity) "
+                + "VALUES (1, 0, 1)");
+
+        // When
+        MvcResult accepted = mockMvc.perform(post("/api/orders/requests")
+                        .with(user(testUser))
+                        .content(objectMapper.writeValueAsString(
+                                new CreateOrderRequestDto("221B Baker Street")))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isAccepted())
+                .andReturn();
+
+        // Then
+        String location = accepted.getResponse().getHeader("Location");
+        assertThat(location).isNotNull();
+        OrderRequestDto orderRequest = awaitOrderRequest(URI.create(location).getPath(),
+                testUser);
+        assertThat(orderRequest.status()).isEqualTo(OrderRequest.Status.FAILED);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Integer.class))
+                .isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT quantity FROM cart_items WHERE shopping_cart_id = 1 AND book_id = 1",
+                Integer.class)).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT quantity FROM inventory_stripes WHERE book_id = 1", Integer.class))
+                .isEqualTo(1);
+    }
+
+    @Test
+    @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+    @DisplayName("Bulk cancel moves matching orders, frees stock, records events and reports ids")
+    void updateOrderStatuses_PendingToCancelled_ReturnsOutcomes() throws Exception {
+        // Given
+        User testUser = new User();
+        testUser.setId(1L);
+        testUser.setEmail("testuser@example.com");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO inventory_stripes (book_id, stripe, quantity) "
+                + "VALUES (1, 0, 5)");
+        MvcResult created = mockMvc.perform(post("/api/orders")
+                        .with(user(testUser))
+                        .content(objectMapper.writeValueAsString(
+                                new CreateOrderRequestDto("221B Baker Street")))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long orderId = objectMapper.readValue(created.getResponse().getContentAsString(),
+                OrderDto.class).getId();
+        UpdateOrderStatusesRequestDto requestDto = new UpdateOrderStatusesRequestDto(
+                List.of(orderId, 999L), "PENDING", "CANCELLED");
+
+        // When
+        mockMvc.perform(post("/api/orders/status:batch")
+                        .content(objectMapper.writeValueAsString(requestDto))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].outcome").value("UPDATED"))
+                .andExpect(jsonPath("$[0].currentStatus").value("CANCELLED"))
+                .andExpect(jsonPath("$[1].orderId").value(999))
+                .andExpect(jsonPath("$[1].outcome").value("NOT_FOUND"));
+
+        // Then
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT quantity FROM inventory_stripes WHERE book_id = 1", Integer.class))
+                .isEqualTo(5);
+        mockMvc.perform(post("/api/orders/status:batch")
+                        .content(objectMapper.writeValueAsString(requestDto))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].outcome").value("STATUS_MISMATCH"));
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT CONCAT(type, ':', status) FROM order_events WHERE order_id = ? "
+                        + "ORDER BY id", String.class, orderId))
+                .containsExactly("CREATED:PENDING", "STATUS_CHANGED:CANCELLED");
+    }
+
+    @Test
+    @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+    @DisplayName("Reopening a cancelled order returns 400 and keeps its stock released")
+    void updateOrderStatus_CancelledToProcessing_ReturnsBadRequest() throws Exception {
+        // Given
+        User testUser = new User();
+        testUser.setId(1L);
+        testUser.setEmail("testuser@example.com");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO inventory_stripes (book_id, stripe, quantity) "
+                + "VALUES (1, 0, 5)");
+        MvcResult created = mockMvc.perform(post("/api/orders")
+                        .with(user(testUser))
+                        .content(objectMapper.writeValueAsString(
+                                new CreateOrderRequestDto("221B Baker Street")))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long orderId = objectMapper.readValue(created.getResponse().getContentAsString(),
+                OrderDto.class).getId();
+        mockMvc.perform(patch("/api/orders/{id}", orderId)
+                        .content(objectMapper.writeValueAsString(
+                                new UpdateOrderStatusRequestDto("CANCELLED")))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        // When
+        mockMvc.perform(patch("/api/orders/{id}", orderId)
+                        .content(objectMapper.writeValueAsString(
+                                new UpdateOrderStatusRequestDto("PROCESSING")))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        // Then
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT status FROM orders WHERE id = ?", String.class, orderId))
+                .isEqualTo("CANCELLED");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT quantity FROM inventory_stripes WHERE book_id = 1", Integer.class))
+                .isEqualTo(5);
+    }
+
+    @Test
+    @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+    @DisplayName("Bulk update with a transition that isn't allowed returns 400 Bad Request")
+    void updateOrderStatuses_DeliveredToPending_ReturnsBadRequest() throws Exception {
+        // Given
+        UpdateOrderStatusesRequestDto requestDto = new UpdateOrderStatusesRequestDto(
+                List.of(1L), "DELIVERED", "PENDING");
+
+        // When & Then
+        mockMvc.perform(post("/api/orders/status:batch")
+                        .content(objectMapper.writeValueAsString(requestDto))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Order history lists items and summaries read the denormalized columns")
+    void getOrders_AfterCheckout_ReturnsItemsAndSummary() throws Exception {
+        // Given
+        User testUser = new User();
+        testUser.setId(1L);
+        testUser.setEmail("testuser@example.com");
+        mockMvc.perform(post("/api/orders")
+                        .with(user(testUser))
+                        .content(objectMapper.writeValueAsString(
+                                new CreateOrderRequestDto("221B Baker Street")))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated());
+
+        // When & Then
+        mockMvc.perform(get("/api/orders").with(user(testUser)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].userId").value(1))
+                .andExpect(jsonPath("$.content[0].orderItems[0].bookId").value(1))
+                .andExpect(jsonPath("$.content[0].orderItems[0].quantity").value(2));
+        mockMvc.perform(get("/api/orders/summaries").with(user(testUser)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].itemCount").value(2))
+                .andExpect(jsonPath("$.content[0].total").value(39.98))
+                .andExpect(jsonPath("$.content[0].status").value("PENDING"));
+    }
+
+    @Test
+    @DisplayName("Order item lookups return the item to its owner, 403 to others, 404 if absent")
+    void getOrderItem_OwnershipScoped_ReturnsItemForbiddenOrNotFound() throws Exception {
+        // Given
+        User testUser = new User();
+        testUser.setId(1L);
+        testUser.setEmail("testuser@example.com");
+        User otherUser = new User();
+        otherUser.setId(2L);
+        otherUser.setEmail("other@example.com");
+        MvcResult created = mockMvc.perform(post("/api/orders")
+                        .with(user(testUser))
+                        .content(objectMapper.writeValueAsString(
+                                new CreateOrderRequestDto("221B Baker Street")))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andReturn();
+        OrderDto order = objectMapper.readValue(created.getResponse().getContentAsString(),
+                OrderDto.class);
+        Long itemId = order.getOrderItems().iterator().next().getId();
+        String itemPath = "/api/orders/" + order.getId() + "/items/" + itemId;
+
+        // When & Then
+        mockMvc.perform(get(itemPath).with(user(testUser)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bookId").value(1))
+                .andExpect(jsonPath("$.quantity").value(2));
+        mockMvc.perform(get(itemPath).with(user(otherUser)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/orders/" + order.getId() + "/items").with(user(otherUser)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/orders/" + order.getId() + "/items/999999")
+                        .with(user(testUser)))
+                .andExpect(status().isNotFound());
+    }
+
+    private OrderRequestDto awaitOrderRequest(String path, User testUser) throws Exception {
+        OrderRequestDto orderRequest;
+        long deadline = System.currentTimeMillis() + 5000;
+        do {
+            Thread.sleep(50);
+            MvcResult result = mockMvc.perform(get(path).with(user(testUser)))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            orderRequest = objectMapper.readValue(result.getResponse().getContentAsString(),
+                    OrderRequestDto.class);
+        } while (orderRequest.status() != OrderRequest.Status.COMPLETED
+                && orderRequest.status() != OrderRequest.Status.FAILED
+                && System.currentTimeMillis() < deadline);
+        return orderRequest;
+    }
+}
@@ -2,6 +2,9 @@ package com.mate.bookstore.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mate.bookstore.dto.shoppingcart.AddToCartRequestDto;
+import com.mate.bookstore.dto.shoppingcart.CartBatchRequestDto;
+import com.mate.bookstore.dto.shoppingcart.CartItemOperationDto;
+import com.mate.bookstore.dto.shoppingcart.CartItemOperationDto.CartItemOperationType;
 import com.mate.bookstore.dto.shoppingcart.CartItemDto;
 import com.mate.bookstore.dto.shoppingcart.ShoppingCartDto;
 import com.mate.bookstore.dto.shoppingcart.UpdateCartItemRequestDto;
@@ -16,6 +19,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.datasource.init.ScriptUtils;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -25,6 +29,8 @@ import org.springframework.web.context.WebApplicationContext;
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.math.BigDecimal;
+import java.util.List;
 import java.util.Set;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
@@ -88,7 +94,8 @@ class ShoppingCartControllerTest {
         ShoppingCartDto expected = new ShoppingCartDto(
                 1L,
                 1L,
-                Set.of(new CartItemDto(1L, 1L, "Test Book Title", 2))
+                Set.of(new CartItemDto(1L, 1L, "Test Book Title", 2)),
+                new BigDecimal("39.98")
         );
 
         // When
@@ -98,6 +105,7 @@ class ShoppingCartControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.userId").value(1L))
                 .andExpect(jsonPath("$.cartItems[0].quantity").value(2))
+                .andExpect(jsonPath("$.total").value(39.98))
                 .andReturn();
 
         // Then
@@ -152,6 +160,49 @@ class ShoppingCartControllerTest {
 
     }
 
+    @WithMockUser(username = "testuser@example.com", roles = {"USER"})
+    @Test
+    @DisplayName("Add a book already in the cart - should increment its quantity")
+    void addBookToShoppingCart_BookAlreadyInCart_ShouldIncrementQuantity() throws Exception {
+        // Given
+        AddToCartRequestDto requestDto = new AddToCartRequestDto(1L, 3);
+        User testUser = new User();
+        testUser.setId(1L);
+        testUser.setEmail("testuser@example.com");
+
+        // When & Then
+        mockMvc.perform(post("/api/cart")
+                        .with(user(testUser))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.cartItems.length()").value(1))
+                .andExpect(jsonPath("$.cartItems[0].id").value(1L))
+                .andExpect(jsonPath("$.cartItems[0].quantity").value(5));
+    }
+
+    @WithMockUser(username = "testuser@example.com", roles = {"USER"})
+    @Test
+    @DisplayName("Add a new book to the cart - should insert a second item")
+    void addBookToShoppingCart_NewBook_ShouldAddItem() throws Exception {
+        // Given
+        new JdbcTemplate(dataSource).update("INSERT INTO books "
+                + "(id, title, price, author, isbn, is_deleted) "
+                + "VALUES (2, 'Second Book', 9.99, 'Test Author', '1234567890122', false)");
+        AddToCartRequestDto requestDto = new AddToCartRequestDto(2L, 1);
+        User testUser = new User();
+        testUser.setId(1L);
+        testUser.setEmail("testuser@example.com");
+
+        // When & Then
+        mockMvc.perform(post("/api/cart")
+                        .with(user(testUser))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.cartItems.length()").value(2));
+    }
+
     @WithMockUser(username = "testuser@example.com", roles = {"USER"})
     @Test
     @DisplayName("Add book with invalid quantity - should return 400 Bad Request")
@@ -229,7 +280,8 @@ class ShoppingCartControllerTest {
         ShoppingCartDto expected = new ShoppingCartDto(
                 1L,
                 userId,
-                Set.of(new CartItemDto(1L, bookId, "Test Book Title", 4)));
+                Set.of(new CartItemDto(1L, bookId, "Test Book Title", 4)),
+                new BigDecimal("79.96"));
 
         // When
         MvcResult result = mockMvc.perform(post("/api/cart")
@@ -251,4 +303,53 @@ class ShoppingCartControllerTest {
 
         EqualsBuilder.reflectionEquals(expected, actual);
     }
+
+    @Test
+    @DisplayName("Apply batch of cart operations - should return resulting ShoppingCartDto")
+    void applyBatch_UpdateAndAdd_ShouldApplyAllOperations() throws Exception {
+        // Given
+        User testUser = new User();
+        testUser.setId(1L);
+        testUser.setEmail("testuser@example.com");
+
+        CartBatchRequestDto requestDto = new CartBatchRequestDto(List.of(
+                new CartItemOperationDto(CartItemOperationType.UPDATE, null, 1L, 1),
+                new CartItemOperationDto(CartItemOperationType.ADD, 1L, null, 2)));
+
+        // When & Then
+        mockMvc.perform(post("/api/cart/items:batch")
+                        .with(user(testUser))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cartItems.length()").value(1))
+                .andExpect(jsonPath("$.cartItems[0].quantity").value(5))
+                .andExpect(jsonPath("$.total").value(99.95));
+    }
+
+    @Test
+    @DisplayName("Apply batch with unknown cart item - should return 404 and change nothing")
+    void applyBatch_UnknownCartItem_ShouldRollBackWholeBatch() throws Exception {
+        // Given
+        User testUser = new User();
+        testUser.setId(1L);
+        testUser.setEmail("testuser@example.com");
+
+        CartBatchRequestDto requestDto = new CartBatchRequestDto(List.of(
+                new CartItemOperationDto(CartItemOperationType.UPDATE, null, 1L, 3),
+                new CartItemOperationDto(CartItemOperationType.REMOVE, null, 999L, null)));
+
+        // When
+        mockMvc.perform(post("/api/cart/items:batch")
+                        .with(user(testUser))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isNotFound());
+
+        // Then
+        mockMvc.perform(get("/api/cart")
+                        .with(user(testUser)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cartItems[0].quantity").value(2));
+    }
 }
@@ -0,0 +1,157 @@
+package com.mate.bookstore.security;
+
+import com.mate.bookstore.cache.ExpiringCache;
+import com.mate.bookstore.model.Role;
+import com.mate.bookstore.model.User;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtUtilTest {
+    private static final String SECRET = "my-very-strong-secret-32-chars-long-1234";
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil(new ExpiringCache<>(100, Duration.ofHours(24)));
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtUtil, "guestCartExpiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtUtil, "secretString", SECRET);
+        jwtUtil.init();
+    }
+
+    @Test
+    @DisplayName("Verify guest cart contents survive a token round trip in order")
+    void parseGuestCartToken_GeneratedToken_ReturnsSameContents() {
+        // Given
+        Map<Long, Integer> cart = new LinkedHashMap<>();
+        cart.put(12L, 2);
+        cart.put(40L, 1);
+
+        // When
+        Map<Long, Integer> parsed = jwtUtil.parseGuestCartToken(jwtUtil.generateGuestCartToken(cart));
+
+        // Then
+        assertThat(parsed).containsExactlyEntriesOf(cart);
+    }
+
+    @Test
+    @DisplayName("Verify guest cart and authentication tokens are not interchangeable")
+    void verify_GuestCartToken_IsRejected() {
+        // Given
+        String guestCartToken = jwtUtil.generateGuestCartToken(Map.of(1L, 1));
+        String authToken = jwtUtil.generateToken(createUser());
+
+        // When & Then
+        assertThrows(JwtException.class, () -> jwtUtil.verify(guestCartToken));
+        assertThrows(JwtException.class, () -> jwtUtil.parseGuestCartToken(authToken));
+    }
+
+    @Test
+    @DisplayName("Verify the principal is rebuilt from token claims")
+    void getPrincipal_TokenWithUserClaims_ReturnsIdEmailAndRoles() {
+        // Given
+        User user = User.builder()
+                .id(42L)
+                .email("reader@example.com")
+                .roles(Set.of(new Role(Role.RoleName.ROLE_USER),
+                        new Role(Role.RoleName.ROLE_ADMIN)))
+                .build();
+        String token = jwtUtil.generateToken(user);
+
+        // When
+        User principal = jwtUtil.getPrincipal(token);
+
+        // Then
+        assertThat(principal.getId()).isEqualTo(42L);
+        assertThat(principal.getUsername()).isEqualTo("reader@example.com");
+        assertThat(principal.getAuthorities())
+                .extracting(GrantedAuthority::getAuthority)
+                .containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+    }
+
+    @Test
+    @DisplayName("Verify tokens without user claims yield no principal")
+    void getPrincipal_TokenWithoutUserClaims_ReturnsNull() {
+        // Given
+        String token = Jwts.builder()
+                .subject("reader@example.com")
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        // When
+        User principal = jwtUtil.getPrincipal(token);
+
+        // Then
+        assertThat(principal).isNull();
+        assertThat(jwtUtil.getUserName(token)).isEqualTo("reader@example.com");
+    }
+
+    @Test
+    @DisplayName("Verify a token seen before is served from the cache")
+    void verify_SameTokenTwice_SecondCallHitsCache() {
+        // Given
+        ExpiringCache<String, VerifiedToken> cache = new ExpiringCache<>(100, Duration.ofHours(24));
+        JwtUtil cachingJwtUtil = createJwtUtil(cache);
+        String token = cachingJwtUtil.generateToken(createUser());
+
+        // When
+        VerifiedToken first = cachingJwtUtil.verify(token);
+        VerifiedToken second = cachingJwtUtil.verify(token);
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(cache.hitCount()).isEqualTo(1);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Verify a cached token is not served past its expiry")
+    void verify_CachedTokenPastExpiry_IsVerifiedAgain() {
+        // Given
+        Clock afterExpiry = Clock.offset(Clock.systemUTC(), Duration.ofHours(2));
+        ExpiringCache<String, VerifiedToken> cache =
+                new ExpiringCache<>(100, Duration.ofHours(24), afterExpiry);
+        JwtUtil cachingJwtUtil = createJwtUtil(cache);
+        String token = cachingJwtUtil.generateToken(createUser());
+
+        // When
+        cachingJwtUtil.verify(token);
+        cachingJwtUtil.verify(token);
+
+        // Then
+        assertThat(cache.hitCount()).isZero();
+        assertThat(cache.putCount()).isEqualTo(2);
+    }
+
+    private JwtUtil createJwtUtil(ExpiringCache<String, VerifiedToken> cache) {
+        JwtUtil util = new JwtUtil(cache);
+        ReflectionTestUtils.setField(util, "expiration", 3_600_000L);
+        ReflectionTestUtils.setField(util, "secretString", SECRET);
+        util.init();
+        return util;
+    }
+
+    private User createUser() {
+        return User.builder()
+                .id(7L)
+                .email("cached@example.com")
+                .roles(Set.of(new Role(Role.RoleName.ROLE_USER)))
+                .build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.mate.bookstore.security;
+
+import com.mate.bookstore.repository.token.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+    @InjectMocks
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tokenRevocationService, "falsePositiveRate", 0.01);
+        when(revokedTokenRepository.findActiveTokenIds(any())).thenReturn(List.of("revoked-id"));
+        when(revokedTokenRepository.findActiveTokenIdsRevokedSince(any(), any()))
+                .thenReturn(List.of());
+        tokenRevocationService.rebuild();
+    }
+
+    @Test
+    @DisplayName("Verify tokens missing from the filter are not looked up")
+    void isRevoked_TokenNotInFilter_SkipsQuery() {
+        // When
+        boolean revoked = tokenRevocationService.isRevoked(token("active-id"));
+
+        // Then
+        assertThat(revoked).isFalse();
+        verify(revokedTokenRepository, never()).existsById(any());
+    }
+
+    @Test
+    @DisplayName("Verify filter hits are confirmed against the table")
+    void isRevoked_TokenInFilter_ChecksTable() {
+        // Given
+        when(revokedTokenRepository.existsById("revoked-id")).thenReturn(true);
+
+        // When
+        boolean revoked = tokenRevocationService.isRevoked(token("revoked-id"));
+
+        // Then
+        assertThat(revoked).isTrue();
+        verify(revokedTokenRepository).existsById("revoked-id");
+    }
+
+    @Test
+    @DisplayName("Verify a revoked token is stored and rejected right away")
+    void revoke_NewToken_SavesAndAddsToFilter() {
+        // Given
+        VerifiedToken token = token("logged-out-id");
+        when(revokedTokenRepository.existsById("logged-out-id")).thenReturn(true);
+
+        // When
+        tokenRevocationService.revoke(token);
+
+        // Then
+        assertThat(tokenRevocationService.isRevoked(token)).isTrue();
+        verify(revokedTokenRepository).insert(eq("logged-out-id"), any(), any());
+    }
+
+    @Test
+    @DisplayName("Verify revoking an already revoked token succeeds")
+    void revoke_AlreadyRevoked_IgnoresDuplicate() {
+        // Given
+        VerifiedToken token = token("logged-out-id");
+        doThrow(new DataIntegrityViolationException("duplicate key"))
+                .when(revokedTokenRepository).insert(eq("logged-out-id"), any(), any());
+        when(revokedTokenRepository.existsById("logged-out-id")).thenReturn(true);
+
+        // When
+        tokenRevocationService.revoke(token);
+
+        // Then
+        assertThat(tokenRevocationService.isRevoked(token)).isTrue();
+    }
+
+    private VerifiedToken token(String tokenId) {
+        return new VerifiedToken(tokenId, "reader@example.com", 1L, Set.of(),
+                Instant.now().plusSeconds(3600));
+    }
+}
@@ -9,18 +9,25 @@ import com.mate.bookstore.mapper.BookMapper;
 import com.mate.bookstore.model.Book;
 import com.mate.bookstore.repository.book.BookRepository;
 import com.mate.bookstore.repository.book.BookSpecificationBuilder;
+import com.mate.bookstore.service.book.search.BookSearchIndex;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import com.mate.bookstore.cache.ExpiringCache;
+import com.mate.bookstore.cache.NegativeLookupCache;
+import com.mate.bookstore.cache.SingleFlight;
+import org.mockito.Spy;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -36,6 +43,17 @@ class BookServiceTest {
 
     @Mock
     private BookSpecificationBuilder bookSpecificationBuilder;
+    @Mock
+    private BookSearchIndex bookSearchIndex;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Spy
+    private ExpiringCache<Long, BookDto> bookCache = new ExpiringCache<>(100, Duration.ofMinutes(10));
+    @Spy
+    private SingleFlight<Long, BookDto> bookLoads = new SingleFlight<>(Duration.ofSeconds(1));
+    @Spy
+    private NegativeLookupCache negativeLookupCache =
+            new NegativeLookupCache(new ExpiringCache<>(100, Duration.ofSeconds(30)));
 
     @InjectMocks
     private BookServiceImpl bookService;
@@ -68,10 +86,11 @@ class BookServiceTest {
                 .build();
 
         Pageable pageable = PageRequest.of(0, 10);
-        List<Book> books = List.of(book);
-        Page<Book> bookPage = new PageImpl<>(books, pageable, books.size());
+        List<Long> ids = List.of(book.getId());
+        Page<Long> idPage = new PageImpl<>(ids, pageable, ids.size());
 
-        when(bookRepository.findAll(pageable)).thenReturn(bookPage);
+        when(bookRepository.findIds(null, pageable)).thenReturn(idPage);
+        when(bookRepository.findAllWithCategoriesByIdIn(ids)).thenReturn(List.of(book));
         when(bookMapper.toBookDto(book)).thenReturn(bookDto);
 
         // When
@@ -80,7 +99,8 @@ class BookServiceTest {
         // Then
         assertThat(bookDtos).hasSize(1);
         assertThat(bookDtos.getContent().get(0)).isEqualTo(bookDto);
-        verify(bookRepository, times(1)).findAll(pageable);
+        verify(bookRepository, times(1)).findIds(null, pageable);
+        verify(bookRepository, times(1)).findAllWithCategoriesByIdIn(ids);
         verify(bookMapper, times(1)).toBookDto(book);
         verifyNoMoreInteractions(bookRepository, bookMapper);
     }
@@ -140,7 +160,9 @@ class BookServiceTest {
         // Given
         Long bookId = 1L;
         Book expectedBook = createTestBook();
-        when(bookRepository.findById(bookId)).thenReturn(Optional.of(expectedBook));
+        when(bookRepository.findWithCategoriesById(bookId)).thenReturn(Optional.of(expectedBook));
+        when(bookMapper.toBookDto(expectedBook)).thenReturn(BookDto.builder().id(bookId).build());
+        when(bookRepository.getReferenceById(bookId)).thenReturn(expectedBook);
 
         // When
         Book actualBook = bookService.getBookById(bookId);
@@ -150,7 +172,48 @@ class BookServiceTest {
                 .isNotNull()
                 .isEqualTo(expectedBook);
 
-        verify(bookRepository, times(1)).findById(bookId);
+        verify(bookRepository, times(1)).findWithCategoriesById(bookId);
+        verify(bookRepository, times(1)).getReferenceById(bookId);
+        verifyNoMoreInteractions(bookRepository);
+    }
+
+    @Test
+    @DisplayName("Verify findById() serves repeated reads from the cache")
+    void findById_CalledTwice_QueriesRepositoryOnce() {
+        // Given
+        Long bookId = 1L;
+        Book book = createTestBook();
+        BookDto bookDto = BookDto.builder().id(bookId).title(book.getTitle()).build();
+        when(bookRepository.findWithCategoriesById(bookId)).thenReturn(Optional.of(book));
+        when(bookMapper.toBookDto(book)).thenReturn(bookDto);
+
+        // When
+        BookDto first = bookService.findById(bookId);
+        BookDto second = bookService.findById(bookId);
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(bookCache.hitCount()).isEqualTo(1);
+        assertThat(bookCache.missCount()).isEqualTo(1);
+        verify(bookRepository, times(1)).findWithCategoriesById(bookId);
+        verifyNoMoreInteractions(bookRepository);
+    }
+
+    @Test
+    @DisplayName("Verify getBookById() returns a reference for cached books")
+    void getBookById_CachedBook_ReturnsReferenceWithoutQuery() {
+        // Given
+        Long bookId = 1L;
+        Book reference = createTestBook();
+        bookCache.put(bookId, BookDto.builder().id(bookId).build());
+        when(bookRepository.getReferenceById(bookId)).thenReturn(reference);
+
+        // When
+        Book actual = bookService.getBookById(bookId);
+
+        // Then
+        assertThat(actual).isSameAs(reference);
+        verify(bookRepository).getReferenceById(bookId);
         verifyNoMoreInteractions(bookRepository);
     }
 
@@ -159,7 +222,7 @@ class BookServiceTest {
     void getBookById_WithNonExistingBook_ShouldThrowException() {
         // Given
         Long bookId = 1L;
-        when(bookRepository.findById(bookId)).thenReturn(Optional.empty());
+        when(bookRepository.findWithCategoriesById(bookId)).thenReturn(Optional.empty());
 
         //When
         EntityNotFoundException entityNotFoundException =
@@ -171,7 +234,25 @@ class BookServiceTest {
         String actual = entityNotFoundException.getMessage();
         assertThat(actual).isEqualTo(expected);
 
-        verify(bookRepository, times(1)).findById(bookId);
+        verify(bookRepository, times(1)).findWithCategoriesById(bookId);
+        verifyNoMoreInteractions(bookRepository);
+    }
+
+    @Test
+    @DisplayName("Verify a missing book id is looked up in the repository only once")
+    void findById_MissingIdCalledTwice_QueriesRepositoryOnce() {
+        // Given
+        Long bookId = 404L;
+        when(bookRepository.findWithCategoriesById(bookId)).thenReturn(Optional.empty());
+
+        // When
+        assertThrows(EntityNotFoundException.class, () -> bookService.findById(bookId));
+        EntityNotFoundException exception =
+                assertThrows(EntityNotFoundException.class, () -> bookService.findById(bookId));
+
+        // Then
+        assertThat(exception.getMessage()).isEqualTo("Book not found with id " + bookId);
+        verify(bookRepository, times(1)).findWithCategoriesById(bookId);
         verifyNoMoreInteractions(bookRepository);
     }
 
@@ -212,7 +293,9 @@ class BookServiceTest {
                 .coverImage(updatedBook.getCoverImage())
                 .build();
 
-        when(bookRepository.findById(bookId)).thenReturn(Optional.of(existingBook));
+        when(bookRepository.findWithCategoriesById(bookId)).thenReturn(Optional.of(existingBook));
+        when(bookMapper.toBookDto(existingBook)).thenReturn(BookDto.builder().id(bookId).build());
+        when(bookRepository.getReferenceById(bookId)).thenReturn(existingBook);
         when(bookRepository.save(any(Book.class))).thenReturn(updatedBook);
         when(bookMapper.toBookDto(updatedBook)).thenReturn(expectedDto);
 
@@ -221,9 +304,11 @@ class BookServiceTest {
 
         // Then
         assertThat(result).isEqualTo(expectedDto);
-        verify(bookRepository, times(1)).findById(bookId);
+        verify(bookRepository, times(1)).findWithCategoriesById(bookId);
+        verify(bookRepository, times(1)).getReferenceById(bookId);
         verify(bookRepository, times(1)).save(existingBook);
         verify(bookMapper).updateModel(updateRequest, existingBook);
+        verify(bookMapper).toBookDto(existingBook);
         verify(bookMapper).toBookDto(updatedBook);
         verifyNoMoreInteractions(bookMapper, bookRepository);
 
@@ -243,13 +328,13 @@ class BookServiceTest {
         );
 
         // When
-        when(bookRepository.findById(bookId)).thenReturn(Optional.empty());
+        when(bookRepository.findWithCategoriesById(bookId)).thenReturn(Optional.empty());
 
         // Then
         assertThrows(EntityNotFoundException.class,
                 () -> bookService.update(bookId, updateRequest));
 
-        verify(bookRepository).findById(bookId);
+        verify(bookRepository).findWithCategoriesById(bookId);
         verifyNoMoreInteractions(bookRepository, bookMapper);
     }
 
@@ -273,9 +358,11 @@ class BookServiceTest {
                 .coverImage(book.getCoverImage())
                 .build();
         Specification<Book> specification = bookSpecificationBuilder.build(params);
-        Page<Book> bookPage = new PageImpl<>(List.of(book));
+        List<Long> ids = List.of(book.getId());
+        Page<Long> idPage = new PageImpl<>(ids, pageable, ids.size());
 
-        when(bookRepository.findAll(specification, pageable)).thenReturn(bookPage);
+        when(bookRepository.findIds(specification, pageable)).thenReturn(idPage);
+        when(bookRepository.findAllWithCategoriesByIdIn(ids)).thenReturn(List.of(book));
         when(bookMapper.toBookDto(book)).thenReturn(expectedDto);
 
         // When
@@ -283,7 +370,8 @@ class BookServiceTest {
 
         // Then
         assertThat(result).hasSize(1);
-        verify(bookRepository).findAll(specification, pageable);
+        verify(bookRepository).findIds(specification, pageable);
+        verify(bookRepository).findAllWithCategoriesByIdIn(ids);
         verify(bookMapper).toBookDto(book);
     }
 
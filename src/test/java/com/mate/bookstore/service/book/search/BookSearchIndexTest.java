@@ -0,0 +1,87 @@
+package com.mate.bookstore.service.book.search;
+
+import com.mate.bookstore.repository.book.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+class BookSearchIndexTest {
+    @Mock
+    private BookRepository bookRepository;
+
+    private BookSearchIndex bookSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        bookSearchIndex = new BookSearchIndex(bookRepository);
+        bookSearchIndex.index(1L, "Effective Java", "Joshua Bloch",
+                "Definitive guide to Java programming");
+        bookSearchIndex.index(2L, "Clean Code", "Robert C. Martin",
+                "Handbook of agile software craftsmanship");
+        bookSearchIndex.index(3L, "Java Concurrency in Practice", "Brian Goetz",
+                "Threads and locks in Java");
+    }
+
+    @Test
+    @DisplayName("Search ranks title matches above description matches")
+    void search_TermInTitleAndDescription_RanksTitleMatchFirst() {
+        // Given
+        bookSearchIndex.index(4L, "Modern Systems", "Jane Doe", "Examples in Java");
+
+        // When
+        List<Long> result = bookSearchIndex.search("java", 10);
+
+        // Then
+        assertThat(result).containsExactly(1L, 3L, 4L);
+    }
+
+    @Test
+    @DisplayName("Search matches words that start with the query term")
+    void search_Prefix_ReturnsMatchingBooks() {
+        // When
+        List<Long> result = bookSearchIndex.search("craft", 10);
+
+        // Then
+        assertThat(result).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("Search with several terms returns only books matching all of them")
+    void search_MultipleTerms_ReturnsIntersection() {
+        // When
+        List<Long> result = bookSearchIndex.search("java goetz", 10);
+
+        // Then
+        assertThat(result).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("Removed and re-indexed books are reflected in search results")
+    void search_AfterRemoveAndReindex_ReflectsChanges() {
+        // When
+        bookSearchIndex.remove(1L);
+        bookSearchIndex.index(2L, "Clean Architecture", "Robert C. Martin", null);
+
+        // Then
+        assertThat(bookSearchIndex.search("java", 10)).containsExactly(3L);
+        assertThat(bookSearchIndex.search("code", 10)).isEmpty();
+        assertThat(bookSearchIndex.search("architecture", 10)).containsExactly(2L);
+        assertThat(bookSearchIndex.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Search ignores case and punctuation in queries")
+    void search_MixedCaseAndPunctuation_NormalizesQuery() {
+        // When
+        List<Long> result = bookSearchIndex.search("  CLEAN, code! ", 10);
+
+        // Then
+        assertThat(result).containsExactly(2L);
+    }
+}
@@ -1,5 +1,8 @@
 package com.mate.bookstore.service.category;
 
+import com.mate.bookstore.cache.ExpiringCache;
+import com.mate.bookstore.cache.NegativeLookupCache;
+import com.mate.bookstore.cache.SingleFlight;
 import com.mate.bookstore.dto.category.CategoryDto;
 import com.mate.bookstore.dto.category.CreateCategoryRequestDto;
 import com.mate.bookstore.dto.category.UpdateCategoryRequestDto;
@@ -12,11 +15,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -29,6 +34,11 @@ class CategoryServiceTest {
     private CategoryRepository categoryRepository;
     @Mock
     private CategoryMapper categoryMapper;
+    @Spy
+    private SingleFlight<Long, CategoryDto> categoryLoads = new SingleFlight<>(Duration.ofSeconds(1));
+    @Spy
+    private NegativeLookupCache negativeLookupCache =
+            new NegativeLookupCache(new ExpiringCache<>(100, Duration.ofSeconds(30)));
     @InjectMocks
     private CategoryServiceImpl categoryService;
 
@@ -149,6 +159,46 @@ class CategoryServiceTest {
 
     }
 
+    @Test
+    @DisplayName("Verify a missing category id is looked up in the repository only once")
+    void getById_MissingIdCalledTwice_QueriesRepositoryOnce() {
+        // Given
+        Long categoryId = 404L;
+        when(categoryRepository.findById(categoryId)).thenReturn(Optional.empty());
+
+        // When
+        assertThrows(EntityNotFoundException.class, () -> categoryService.getById(categoryId));
+        assertThrows(EntityNotFoundException.class, () -> categoryService.getById(categoryId));
+
+        // Then
+        verify(categoryRepository, times(1)).findById(categoryId);
+    }
+
+    @Test
+    @DisplayName("Verify saving a category clears a cached miss for its id")
+    void save_PreviouslyMissingId_ClearsNegativeEntry() {
+        // Given
+        Long categoryId = 5L;
+        CreateCategoryRequestDto requestDto = new CreateCategoryRequestDto("Poetry", null);
+        Category category = new Category();
+        category.setId(categoryId);
+        when(categoryRepository.findById(categoryId))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(category));
+        when(categoryMapper.toEntity(requestDto)).thenReturn(category);
+        when(categoryRepository.save(category)).thenReturn(category);
+        when(categoryMapper.toDto(category)).thenReturn(new CategoryDto(categoryId, "Poetry", null));
+        assertThrows(EntityNotFoundException.class, () -> categoryService.getById(categoryId));
+
+        // When
+        categoryService.save(requestDto);
+        CategoryDto actual = categoryService.getById(categoryId);
+
+        // Then
+        assertThat(actual.getId()).isEqualTo(categoryId);
+        verify(categoryRepository, times(2)).findById(categoryId);
+    }
+
     @Test
     @DisplayName("Verify update() works with valid data")
     void update_ValidRequest_ReturnsUpdatedCategoryDto() {
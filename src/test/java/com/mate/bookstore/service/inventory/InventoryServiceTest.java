@@ -0,0 +1,127 @@
+package com.mate.bookstore.service.inventory;
+
+import com.mate.bookstore.exception.InsufficientStockException;
+import com.mate.bookstore.model.StockReservation;
+import com.mate.bookstore.repository.inventory.InventoryStripeRepository;
+import com.mate.bookstore.repository.inventory.StockReservationRepository;
+import com.mate.bookstore.repository.inventory.StripeQuantity;
+import com.mate.bookstore.service.book.BookService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.util.List;
+import java.util.Map;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryServiceTest {
+    @Mock
+    private InventoryStripeRepository inventoryStripeRepository;
+    @Mock
+    private StockReservationRepository stockReservationRepository;
+    @Mock
+    private BookService bookService;
+    @InjectMocks
+    private InventoryServiceImpl inventoryService;
+
+    @Test
+    @DisplayName("Verify a quantity larger than one stripe is taken from several stripes")
+    @SuppressWarnings("unchecked")
+    void reserve_QuantitySpansStripes_ReservesFromEach() {
+        // Given
+        List<StripeQuantity> stripes = List.of(
+                new StripeQuantity(0, 1), new StripeQuantity(1, 1), new StripeQuantity(2, 1));
+        when(inventoryStripeRepository.findStripeQuantities(1L)).thenReturn(stripes);
+        when(inventoryStripeRepository.lockStripeQuantities(1L)).thenReturn(stripes);
+        when(inventoryStripeRepository.take(eq(1L), anyInt(), eq(1))).thenReturn(1);
+
+        // When
+        inventoryService.reserve(10L, Map.of(1L, 2));
+
+        // Then
+        ArgumentCaptor<List<StockReservation>> saved = ArgumentCaptor.forClass(List.class);
+        verify(stockReservationRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).hasSize(2)
+                .allMatch(reservation -> reservation.getQuantity() == 1
+                        && reservation.getOrderId().equals(10L));
+        assertThat(saved.getValue()).extracting(StockReservation::getStripe)
+                .containsExactly(0, 1);
+    }
+
+    @Test
+    @DisplayName("Verify a quantity one stripe holds is taken without locking the others")
+    @SuppressWarnings("unchecked")
+    void reserve_QuantityFitsOneStripe_TakesSingleStripe() {
+        // Given
+        when(inventoryStripeRepository.findStripeQuantities(1L)).thenReturn(List.of(
+                new StripeQuantity(0, 5), new StripeQuantity(1, 5)));
+        when(inventoryStripeRepository.take(eq(1L), anyInt(), eq(3))).thenReturn(1);
+
+        // When
+        inventoryService.reserve(10L, Map.of(1L, 3));
+
+        // Then
+        ArgumentCaptor<List<StockReservation>> saved = ArgumentCaptor.forClass(List.class);
+        verify(stockReservationRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).singleElement()
+                .matches(reservation -> reservation.getQuantity() == 3);
+        verify(inventoryStripeRepository, never()).lockStripeQuantities(any());
+    }
+
+    @Test
+    @DisplayName("Verify a book without enough stock fails the whole reservation")
+    void reserve_NotEnoughStock_ThrowsException() {
+        // Given
+        when(inventoryStripeRepository.findStripeQuantities(1L))
+                .thenReturn(List.of(new StripeQuantity(0, 1)));
+        when(inventoryStripeRepository.lockStripeQuantities(1L))
+                .thenReturn(List.of(new StripeQuantity(0, 1)));
+        when(inventoryStripeRepository.take(1L, 0, 1)).thenReturn(1);
+
+        // When & Then
+        assertThatThrownBy(() -> inventoryService.reserve(10L, Map.of(1L, 2)))
+                .isInstanceOf(InsufficientStockException.class);
+        verify(stockReservationRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("Verify books without stripes are not tracked")
+    void reserve_UntrackedBook_ReservesNothing() {
+        // Given
+        when(inventoryStripeRepository.findStripeQuantities(1L)).thenReturn(List.of());
+
+        // When
+        inventoryService.reserve(10L, Map.of(1L, 5));
+
+        // Then
+        verify(inventoryStripeRepository, never()).take(any(), anyInt(), anyInt());
+        verify(stockReservationRepository).saveAll(List.of());
+    }
+
+    @Test
+    @DisplayName("Verify stock reserved from a stripe removed since is given back to another")
+    void release_StripeNoLongerExists_GivesBackToRemainingStripe() {
+        // Given
+        StockReservation reservation = new StockReservation(10L, 1L, 6, 2);
+        when(stockReservationRepository.findByOrderIdInAndStatusOrderByBookIdAscStripeAsc(
+                List.of(10L), StockReservation.Status.RESERVED)).thenReturn(List.of(reservation));
+        when(inventoryStripeRepository.findStripeQuantities(1L)).thenReturn(List.of(
+                new StripeQuantity(0, 0), new StripeQuantity(1, 0), new StripeQuantity(2, 0),
+                new StripeQuantity(3, 0)));
+
+        // When
+        inventoryService.release(List.of(10L));
+
+        // Then
+        verify(inventoryStripeRepository).giveBack(1L, 2, 2);
+        assertThat(reservation.getStatus()).isEqualTo(StockReservation.Status.RELEASED);
+    }
+}
@@ -0,0 +1,109 @@
+package com.mate.bookstore.service.order;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mate.bookstore.cache.ExpiringCache;
+import com.mate.bookstore.cache.SingleFlight;
+import com.mate.bookstore.dto.order.CreateOrderRequestDto;
+import com.mate.bookstore.dto.order.OrderDto;
+import com.mate.bookstore.model.IdempotencyKey;
+import com.mate.bookstore.model.OrderStatus;
+import com.mate.bookstore.model.User;
+import com.mate.bookstore.repository.idempotency.IdempotencyKeyRepository;
+import com.mate.bookstore.repository.idempotency.IdempotencyKeyState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderIdempotencyServiceTest {
+    private static final String KEY = "checkout-1";
+    @Mock
+    private OrderService orderService;
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule());
+    private OrderIdempotencyService idempotencyService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new OrderIdempotencyService(orderService,
+                idempotencyKeyRepository, new ExpiringCache<>(100, Duration.ofDays(1)),
+                new SingleFlight<>(Duration.ofSeconds(5)), objectMapper, transactionManager,
+                Duration.ofDays(1), Duration.ofSeconds(5), Duration.ofMinutes(2), 2);
+        user = new User();
+        user.setId(1L);
+    }
+
+    @Test
+    @DisplayName("Verify a request whose claim was taken over rolls back and reuses the response")
+    void createOrder_ClaimTakenOver_RollsBackAndReturnsNewOwnersResponse() throws Exception {
+        // Given
+        IdempotencyKeyState completed = new IdempotencyKeyState(7L, "new-owner", 4L,
+                objectMapper.writeValueAsString(order(4L)), Instant.now(),
+                Instant.now().plus(Duration.ofDays(1)));
+        when(idempotencyKeyRepository.findState(1L, KEY))
+                .thenReturn(Optional.empty(), Optional.of(completed));
+        when(idempotencyKeyRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+            IdempotencyKey claimed = invocation.getArgument(0);
+            claimed.setId(7L);
+            return claimed;
+        });
+        SimpleTransactionStatus transaction = new SimpleTransactionStatus();
+        when(transactionManager.getTransaction(any())).thenReturn(transaction);
+        when(orderService.createOrder(any(), eq(user))).thenReturn(order(3L));
+        when(idempotencyKeyRepository.complete(eq(7L), anyString(), eq(3L), anyString()))
+                .thenReturn(0);
+
+        // When
+        OrderDto order = idempotencyService.createOrder(
+                new CreateOrderRequestDto("221B Baker Street"), user, KEY);
+
+        // Then
+        assertThat(order.getId()).isEqualTo(4L);
+        assertThat(transaction.isRollbackOnly()).isTrue();
+        verify(idempotencyKeyRepository, never()).release(any(), any());
+    }
+
+    @Test
+    @DisplayName("Verify expired keys are deleted in batches until a short batch")
+    void purgeExpired_SeveralBatches_DeletesAll() {
+        // Given
+        when(idempotencyKeyRepository.findExpiredIds(any(), any()))
+                .thenReturn(List.of(1L, 2L), List.of(3L));
+
+        // When
+        int purged = idempotencyService.purgeExpired();
+
+        // Then
+        assertThat(purged).isEqualTo(3);
+        verify(idempotencyKeyRepository, times(2)).deleteAllByIdInBatch(anyList());
+    }
+
+    private OrderDto order(Long id) {
+        return new OrderDto(id, 1L, Set.of(), LocalDateTime.now(), new BigDecimal("39.98"),
+                OrderStatus.PENDING);
+    }
+}
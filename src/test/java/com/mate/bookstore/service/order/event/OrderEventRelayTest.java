@@ -0,0 +1,106 @@
+package com.mate.bookstore.service.order.event;
+
+import com.mate.bookstore.dto.order.OrderEventDto;
+import com.mate.bookstore.model.OrderEvent;
+import com.mate.bookstore.model.OrderStatus;
+import com.mate.bookstore.repository.order.OrderEventRepository;
+import com.mate.bookstore.service.scheduling.SchedulerLockService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderEventRelayTest {
+    @Mock
+    private OrderEventRepository orderEventRepository;
+    @Mock
+    private OrderEventSink orderEventSink;
+    @Mock
+    private SchedulerLockService schedulerLockService;
+    private SimpleMeterRegistry meterRegistry;
+    private OrderEventRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new OrderEventRelay(orderEventRepository, orderEventSink, schedulerLockService,
+                meterRegistry, true, 2, Duration.ofMinutes(1), Duration.ofSeconds(30));
+    }
+
+    @Test
+    @DisplayName("Verify full batches are sent in order and deleted after the sink accepts them")
+    void relay_FullBatches_SendsAndDeletes() {
+        // Given
+        Instant occurredAt = Instant.now();
+        List<OrderEventDto> first = List.of(event(1L, occurredAt), event(2L, occurredAt));
+        List<OrderEventDto> second = List.of(event(3L, occurredAt), event(4L, occurredAt));
+        when(orderEventRepository.findOldest(any()))
+                .thenReturn(first, second, List.of());
+        when(schedulerLockService.tryAcquire(eq(OrderEventRelay.LOCK_NAME), any()))
+                .thenReturn(true);
+
+        // When
+        int delivered = relay.relay();
+
+        // Then
+        assertThat(delivered).isEqualTo(4);
+        var inOrder = inOrder(orderEventSink, orderEventRepository);
+        inOrder.verify(orderEventSink).send(first);
+        inOrder.verify(orderEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        inOrder.verify(orderEventSink).send(second);
+        inOrder.verify(orderEventRepository).deleteAllByIdInBatch(List.of(3L, 4L));
+        assertThat(meterRegistry.counter("outbox.delivered").count()).isEqualTo(4);
+        assertThat(meterRegistry.get("outbox.lag").timeGauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Verify a partial batch waits until its oldest event has lingered")
+    void relay_PartialBatchWithinLinger_SendsNothing() {
+        // Given
+        when(orderEventRepository.findOldest(any()))
+                .thenReturn(List.of(event(1L, Instant.now())));
+
+        // When
+        int delivered = relay.relay();
+
+        // Then
+        assertThat(delivered).isZero();
+        verifyNoInteractions(orderEventSink);
+        verify(orderEventRepository, never()).deleteAllByIdInBatch(anyList());
+    }
+
+    @Test
+    @DisplayName("Verify events stay in the outbox when the sink fails")
+    void relay_SinkFails_KeepsEvents() {
+        // Given
+        Instant occurredAt = Instant.now().minus(Duration.ofMinutes(5));
+        when(orderEventRepository.findOldest(any()))
+                .thenReturn(List.of(event(1L, occurredAt)));
+        doThrow(new IllegalStateException("sink down")).when(orderEventSink).send(anyList());
+
+        // When & Then
+        assertThatThrownBy(() -> relay.relay()).isInstanceOf(IllegalStateException.class);
+        verify(orderEventRepository, never()).deleteAllByIdInBatch(anyList());
+        assertThat(meterRegistry.get("outbox.lag").timeGauge().value())
+                .isGreaterThanOrEqualTo(Duration.ofMinutes(5).toSeconds());
+    }
+
+    private OrderEventDto event(Long id, Instant occurredAt) {
+        return new OrderEventDto(id, 10L, 1L, OrderEvent.Type.CREATED, OrderStatus.PENDING,
+                new BigDecimal("19.99"), occurredAt);
+    }
+}
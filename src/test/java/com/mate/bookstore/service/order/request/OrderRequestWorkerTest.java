@@ -0,0 +1,151 @@
+package com.mate.bookstore.service.order.request;
+
+import com.mate.bookstore.dto.order.OrderDto;
+import com.mate.bookstore.dto.shoppingcart.CartBatchRequestDto;
+import com.mate.bookstore.dto.shoppingcart.CartItemOperationDto.CartItemOperationType;
+import com.mate.bookstore.exception.EntityNotFoundException;
+import com.mate.bookstore.model.OrderRequest;
+import com.mate.bookstore.model.OrderRequestItem;
+import com.mate.bookstore.model.User;
+import com.mate.bookstore.repository.order.OrderRequestRepository;
+import com.mate.bookstore.repository.user.UserRepository;
+import com.mate.bookstore.service.book.BookService;
+import com.mate.bookstore.service.order.OrderService;
+import com.mate.bookstore.service.shoppingcart.ShoppingCartService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderRequestWorkerTest {
+    @Mock
+    private OrderRequestRepository orderRequestRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private OrderService orderService;
+    @Mock
+    private ShoppingCartService shoppingCartService;
+    @Mock
+    private BookService bookService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private OrderRequestWorker worker;
+    private OrderRequest orderRequest;
+
+    @BeforeEach
+    void setUp() {
+        worker = new OrderRequestWorker(orderRequestRepository, userRepository, orderService,
+                shoppingCartService, bookService, transactionManager, true, 1, 10,
+                Duration.ofMinutes(1), Duration.ofSeconds(1), 3, Duration.ofSeconds(5));
+        orderRequest = new OrderRequest(1L, "221B Baker Street");
+        orderRequest.setId(5L);
+        orderRequest.getItems().add(new OrderRequestItem(1L, 2));
+        when(orderRequestRepository.lockClaimableIds(any(), anyInt())).thenReturn(List.of(5L));
+        when(orderRequestRepository.findAllWithItemsByIdIn(List.of(5L)))
+                .thenReturn(List.of(orderRequest));
+        when(userRepository.getReferenceById(1L)).thenReturn(new User());
+    }
+
+    @Test
+    @DisplayName("Verify a claimed request is ordered from its stored items and completed")
+    void processBatch_OrderCreated_CompletesRequest() {
+        // Given
+        OrderDto order = new OrderDto();
+        order.setId(9L);
+        when(orderService.createOrder(any(User.class), eq("221B Baker Street"),
+                eq(Map.of(1L, 2)))).thenReturn(order);
+        when(orderRequestRepository.complete(eq(5L), anyString(), eq(9L))).thenReturn(1);
+
+        // When
+        int processed = worker.processBatch();
+
+        // Then
+        assertThat(processed).isEqualTo(1);
+        ArgumentCaptor<String> claimToken = ArgumentCaptor.forClass(String.class);
+        verify(orderRequestRepository).claim(anyList(), claimToken.capture(), any());
+        verify(orderRequestRepository).complete(5L, claimToken.getValue(), 9L);
+        verify(orderRequestRepository, never()).fail(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Verify a checkout error fails the request and returns its items to the cart")
+    void processBatch_BookMissing_FailsRequestAndRestoresCart() {
+        // Given
+        when(orderService.createOrder(any(User.class), anyString(), anyMap()))
+                .thenThrow(new EntityNotFoundException("Books not found with ids [1]"));
+        when(orderRequestRepository.fail(eq(5L), anyString(), anyString())).thenReturn(1);
+        when(bookService.findExistingIds(Set.of(1L))).thenReturn(Set.of(1L));
+
+        // When
+        worker.processBatch();
+
+        // Then
+        verify(orderRequestRepository).fail(eq(5L), anyString(),
+                eq("Books not found with ids [1]"));
+        verify(orderRequestRepository, never()).complete(any(), any(), any());
+        verify(orderRequestRepository, never()).retryLater(any(), any(), any(), any());
+        ArgumentCaptor<CartBatchRequestDto> batch =
+                ArgumentCaptor.forClass(CartBatchRequestDto.class);
+        verify(shoppingCartService).applyBatch(any(User.class), batch.capture());
+        assertThat(batch.getValue().operations()).singleElement()
+                .matches(operation -> operation.type() == CartItemOperationType.ADD
+                        && operation.bookId().equals(1L) && operation.quantity() == 2);
+    }
+
+    @Test
+    @DisplayName("Verify a lock timeout puts the request back to pending with a backoff")
+    void processBatch_LockTimeout_RetriesLater() {
+        // Given
+        when(orderService.createOrder(any(User.class), anyString(), anyMap()))
+                .thenThrow(new CannotAcquireLockException("Lock wait timeout exceeded"));
+        Instant before = Instant.now();
+
+        // When
+        worker.processBatch();
+
+        // Then
+        ArgumentCaptor<Instant> nextAttemptAt = ArgumentCaptor.forClass(Instant.class);
+        verify(orderRequestRepository).retryLater(eq(5L), anyString(), nextAttemptAt.capture(),
+                eq("Lock wait timeout exceeded"));
+        assertThat(nextAttemptAt.getValue()).isAfterOrEqualTo(before.plusSeconds(5));
+        verify(orderRequestRepository, never()).fail(any(), any(), any());
+        verifyNoInteractions(shoppingCartService);
+    }
+
+    @Test
+    @DisplayName("Verify a transient error on the last attempt fails the request")
+    void processBatch_TransientErrorOnLastAttempt_FailsRequest() {
+        // Given
+        orderRequest.setAttempts(2);
+        when(orderService.createOrder(any(User.class), anyString(), anyMap()))
+                .thenThrow(new CannotAcquireLockException("Lock wait timeout exceeded"));
+
+        // When
+        worker.processBatch();
+
+        // Then
+        verify(orderRequestRepository).fail(eq(5L), anyString(),
+                eq("Lock wait timeout exceeded"));
+        verify(orderRequestRepository, never()).retryLater(any(), any(), any(), any());
+    }
+}
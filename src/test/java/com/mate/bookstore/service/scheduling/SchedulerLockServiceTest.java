@@ -0,0 +1,41 @@
+package com.mate.bookstore.service.scheduling;
+
+import com.mate.bookstore.repository.scheduling.SchedulerLockRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.time.Duration;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class SchedulerLockServiceTest {
+    private static final String LOCK_NAME = "scheduler-lock-test";
+    @Autowired
+    private SchedulerLockRepository schedulerLockRepository;
+
+    @AfterEach
+    void afterEach() {
+        schedulerLockRepository.deleteById(LOCK_NAME);
+    }
+
+    @Test
+    @DisplayName("Verify only the node that created a lease row holds it until it is released")
+    void tryAcquire_TwoNodes_OnlyFirstHoldsLease() {
+        // Given
+        SchedulerLockService first = new SchedulerLockService(schedulerLockRepository);
+        SchedulerLockService second = new SchedulerLockService(schedulerLockRepository);
+
+        // When
+        boolean firstAcquired = first.tryAcquire(LOCK_NAME, Duration.ofMinutes(1));
+        boolean secondAcquired = second.tryAcquire(LOCK_NAME, Duration.ofMinutes(1));
+
+        // Then
+        assertThat(firstAcquired).isTrue();
+        assertThat(secondAcquired).isFalse();
+        assertThat(first.tryAcquire(LOCK_NAME, Duration.ofMinutes(1))).isTrue();
+        first.release(LOCK_NAME);
+        assertThat(second.tryAcquire(LOCK_NAME, Duration.ofMinutes(1))).isTrue();
+    }
+}
@@ -0,0 +1,92 @@
+package com.mate.bookstore.service.shoppingcart;
+
+import com.mate.bookstore.repository.shoppingcart.CartItemRepository;
+import com.mate.bookstore.service.scheduling.SchedulerLockService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.time.Duration;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AbandonedCartSweeperTest {
+    @Mock
+    private CartItemRepository cartItemRepository;
+    @Mock
+    private SchedulerLockService schedulerLockService;
+    private SimpleMeterRegistry meterRegistry;
+    private AbandonedCartSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        sweeper = new AbandonedCartSweeper(cartItemRepository, schedulerLockService,
+                meterRegistry, true, Duration.ofDays(30), 2, Duration.ZERO,
+                Duration.ofMinutes(5));
+    }
+
+    @Test
+    @DisplayName("Verify batches are walked by id until a short batch and reported")
+    void sweep_SeveralBatches_DeletesAllAndRecordsMetrics() {
+        // Given
+        when(schedulerLockService.tryAcquire(eq(AbandonedCartSweeper.LOCK_NAME), any()))
+                .thenReturn(true);
+        when(cartItemRepository.findIdsModifiedBefore(any(), eq(0L), any()))
+                .thenReturn(List.of(3L, 5L));
+        when(cartItemRepository.findIdsModifiedBefore(any(), eq(5L), any()))
+                .thenReturn(List.of(8L));
+        when(cartItemRepository.deleteAllByIdInModifiedBefore(anyList(), any()))
+                .thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).size());
+
+        // When
+        AbandonedCartSweeper.SweepResult result = sweeper.sweep();
+
+        // Then
+        assertThat(result.removed()).isEqualTo(3);
+        verify(cartItemRepository, times(2)).findIdsModifiedBefore(any(), any(), any());
+        assertThat(meterRegistry.counter("cart.sweeper.removed").count()).isEqualTo(3);
+        assertThat(meterRegistry.timer("cart.sweeper.duration").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Verify the sweep stops when the lease can't be extended")
+    void sweep_LeaseLost_StopsAfterCurrentBatch() {
+        // Given
+        when(schedulerLockService.tryAcquire(eq(AbandonedCartSweeper.LOCK_NAME), any()))
+                .thenReturn(false);
+        when(cartItemRepository.findIdsModifiedBefore(any(), eq(0L), any()))
+                .thenReturn(List.of(3L, 5L));
+        when(cartItemRepository.deleteAllByIdInModifiedBefore(anyList(), any())).thenReturn(2);
+
+        // When
+        AbandonedCartSweeper.SweepResult result = sweeper.sweep();
+
+        // Then
+        assertThat(result.removed()).isEqualTo(2);
+        verify(cartItemRepository, times(1)).findIdsModifiedBefore(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Verify nodes without the lease don't sweep")
+    void sweepIfLeader_LeaseHeldElsewhere_DoesNothing() {
+        // Given
+        when(schedulerLockService.tryAcquire(eq(AbandonedCartSweeper.LOCK_NAME), any()))
+                .thenReturn(false);
+
+        // When
+        sweeper.sweepIfLeader();
+
+        // Then
+        verifyNoInteractions(cartItemRepository);
+        verify(schedulerLockService, never()).release(any());
+    }
+}
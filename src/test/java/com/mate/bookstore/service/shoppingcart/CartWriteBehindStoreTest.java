@@ -0,0 +1,232 @@
+package com.mate.bookstore.service.shoppingcart;
+
+import com.mate.bookstore.repository.shoppingcart.CartItemRow;
+import com.mate.bookstore.repository.shoppingcart.ShoppingCartRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CartWriteBehindStoreTest {
+    @Mock
+    private ShoppingCartRepository shoppingCartRepository;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @TempDir
+    private Path tempDir;
+    private Path journal;
+
+    @BeforeEach
+    void setUp() {
+        journal = tempDir.resolve("cart-journal.log");
+    }
+
+    @Test
+    @DisplayName("Verify repeated updates are applied in memory and flushed as one batch")
+    void flush_RepeatedUpdates_WritesLatestQuantityOnce() {
+        // Given
+        CartWriteBehindStore store = store(10);
+        when(shoppingCartRepository.findCartItemRowsByUserId(1L)).thenReturn(cart(1L, 10L, 2));
+
+        // When
+        store.updateQuantity(1L, 10L, 1);
+        store.updateQuantity(1L, 10L, 3);
+        List<CartItemRow> rows = store.getRows(1L);
+        store.flush();
+
+        // Then
+        assertThat(rows.get(0).quantity()).isEqualTo(6);
+        verify(shoppingCartRepository, times(1)).findCartItemRowsByUserId(1L);
+        assertThat(writtenBatch()).containsExactly(List.of(6, 10L));
+    }
+
+    @Test
+    @DisplayName("Verify items outside the user's cart are left to the database path")
+    void updateQuantity_ItemNotInCart_ReturnsFalse() {
+        // Given
+        CartWriteBehindStore store = store(10);
+        when(shoppingCartRepository.findCartItemRowsByUserId(1L)).thenReturn(cart(1L, 10L, 2));
+
+        // When
+        boolean updated = store.updateQuantity(1L, 99L, 1);
+
+        // Then
+        assertThat(updated).isFalse();
+        store.flush();
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Verify the journal is replayed into the database on startup")
+    void replayJournal_UnflushedUpdates_WritesThem() throws Exception {
+        // Given
+        CartWriteBehindStore crashed = store(10);
+        when(shoppingCartRepository.findCartItemRowsByUserId(1L)).thenReturn(cart(1L, 10L, 2));
+        crashed.updateQuantity(1L, 10L, 5);
+
+        // When
+        store(10);
+
+        // Then
+        assertThat(writtenBatch()).containsExactly(List.of(7, 10L));
+        assertThat(Files.readAllLines(journal)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Verify an update made while a flush is writing is kept for the next flush")
+    void flush_UpdateDuringWrite_KeepsNewerQuantity() throws Exception {
+        // Given
+        CartWriteBehindStore store = store(10);
+        when(shoppingCartRepository.findCartItemRowsByUserId(1L)).thenReturn(cart(1L, 10L, 2));
+        store.updateQuantity(1L, 10L, 1);
+        AtomicBoolean updated = new AtomicBoolean();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            if (updated.compareAndSet(false, true)) {
+                store.updateQuantity(1L, 10L, 4);
+            }
+            return new int[]{1};
+        });
+
+        // When
+        store.flush();
+        List<String> journalAfterFirstFlush = Files.readAllLines(journal);
+        store.flush();
+
+        // Then
+        assertThat(journalAfterFirstFlush).containsExactly("10,7");
+        assertThat(writtenBatches()).containsExactly(List.of(List.of(3, 10L)),
+                List.of(List.of(7, 10L)));
+        assertThat(store.getRows(1L).get(0).quantity()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Verify carts over the size cap are dropped and keep pending quantities")
+    void getRows_OverCapacity_DropsEldestCartAndKeepsPendingQuantity() {
+        // Given
+        CartWriteBehindStore store = store(1);
+        when(shoppingCartRepository.findCartItemRowsByUserId(1L)).thenReturn(cart(1L, 10L, 2));
+        when(shoppingCartRepository.findCartItemRowsByUserId(2L)).thenReturn(cart(2L, 20L, 1));
+        store.updateQuantity(1L, 10L, 1);
+
+        // When
+        store.getRows(2L);
+        List<CartItemRow> reloaded = store.getRows(1L);
+
+        // Then
+        verify(shoppingCartRepository, times(2)).findCartItemRowsByUserId(1L);
+        assertThat(reloaded.get(0).quantity()).isEqualTo(3);
+        store.flush();
+        assertThat(writtenBatch()).containsExactly(List.of(3, 10L));
+    }
+
+    @Test
+    @DisplayName("Verify a cart loaded while an add commits is not cached over the add")
+    void getRows_AddCommitsDuringLoad_DoesNotCacheStaleSnapshot() throws Exception {
+        // Given
+        CartWriteBehindStore store = store(10);
+        AtomicBoolean added = new AtomicBoolean();
+        when(shoppingCartRepository.findCartItemRowsByUserId(1L)).thenAnswer(invocation -> {
+            if (added.compareAndSet(false, true)) {
+                Thread add = new Thread(() -> inTransaction(() -> store.flushAndEvict(1L)));
+                add.start();
+                add.join();
+                return cart(1L, 10L, 2);
+            }
+            return cart(1L, 10L, 5);
+        });
+
+        // When
+        List<CartItemRow> racedRows = store.getRows(1L);
+        boolean updated = store.updateQuantity(1L, 10L, 1);
+        store.flush();
+
+        // Then
+        assertThat(racedRows.get(0).quantity()).isEqualTo(2);
+        assertThat(updated).isTrue();
+        verify(shoppingCartRepository, times(2)).findCartItemRowsByUserId(1L);
+        assertThat(writtenBatch()).containsExactly(List.of(6, 10L));
+    }
+
+    @Test
+    @DisplayName("Verify a cart being changed through the database is left to the database")
+    void updateQuantity_DatabaseChangeRunning_ReturnsFalseUntilItCompletes() {
+        // Given
+        CartWriteBehindStore store = store(10);
+        when(shoppingCartRepository.findCartItemRowsByUserId(1L)).thenReturn(cart(1L, 10L, 2));
+        AtomicBoolean updatedDuringChange = new AtomicBoolean(true);
+
+        // When
+        inTransaction(() -> {
+            store.flushAndEvict(1L);
+            store.getRows(1L);
+            updatedDuringChange.set(store.updateQuantity(1L, 10L, 1));
+        });
+        boolean updatedAfterChange = store.updateQuantity(1L, 10L, 1);
+
+        // Then
+        assertThat(updatedDuringChange).isFalse();
+        assertThat(updatedAfterChange).isTrue();
+        verify(shoppingCartRepository, times(2)).findCartItemRowsByUserId(1L);
+    }
+
+    private void inTransaction(Runnable change) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            change.run();
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                    TransactionSynchronizationManager.getSynchronizations(),
+                    TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private CartWriteBehindStore store(int maxCarts) {
+        CartWriteBehindStore store = new CartWriteBehindStore(shoppingCartRepository,
+                jdbcTemplate, transactionManager, true, maxCarts, journal);
+        store.replayJournal();
+        return store;
+    }
+
+    private List<CartItemRow> cart(Long userId, Long cartItemId, int quantity) {
+        return List.of(new CartItemRow(userId, userId, cartItemId, 1L, "Test Book Title",
+                quantity, new BigDecimal("19.99")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<Object>> writtenBatch() {
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), batch.capture());
+        return batch.getValue().stream().map(row -> List.of(row[0], row[2])).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<List<Object>>> writtenBatches() {
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, atLeastOnce()).batchUpdate(anyString(), batch.capture());
+        return batch.getAllValues().stream()
+                .map(rows -> rows.stream().map(row -> List.of(row[0], row[2])).toList())
+                .toList();
+    }
+}
@@ -9,6 +9,7 @@ import com.mate.bookstore.model.Book;
 import com.mate.bookstore.model.CartItem;
 import com.mate.bookstore.model.ShoppingCart;
 import com.mate.bookstore.model.User;
+import com.mate.bookstore.repository.shoppingcart.CartItemRow;
 import com.mate.bookstore.repository.shoppingcart.ShoppingCartRepository;
 import com.mate.bookstore.service.shoppingcart.item.CartItemService;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,6 +21,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import java.math.BigDecimal;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import static org.junit.jupiter.api.Assertions.*;
@@ -33,6 +35,8 @@ class ShoppingCartServiceTest {
     private ShoppingCartMapper shoppingCartMapper;
     @Mock
     private CartItemService cartItemService;
+    @Mock
+    private CartWriteBehindStore cartWriteBehindStore;
     @InjectMocks
     private ShoppingCartServiceImpl shoppingCartService;
 
@@ -83,14 +87,17 @@ class ShoppingCartServiceTest {
         ShoppingCartDto expectedDto = new ShoppingCartDto(
                 userCart.getId(),
                 testUser.getId(),
-                Set.of(cartItemDto)
+                Set.of(cartItemDto),
+                new BigDecimal("39.98")
         );
+        List<CartItemRow> rows = List.of(new CartItemRow(userCart.getId(), testUser.getId(),
+                cartItem.getId(), testBook.getId(), testBook.getTitle(),
+                cartItem.getQuantity(), testBook.getPrice()));
 
-        when(shoppingCartRepository.findByUserId(testUser.getId())).thenReturn(Optional.of(userCart));
-        when(cartItemService.createCartItem(requestDto.bookId(),
-                requestDto.quantity(), userCart)).thenReturn(cartItem);
-        when(shoppingCartRepository.save(userCart)).thenReturn(userCart);
-        when(shoppingCartMapper.toDto(userCart)).thenReturn(expectedDto);
+        when(shoppingCartRepository.findIdByUserId(testUser.getId()))
+                .thenReturn(Optional.of(userCart.getId()));
+        when(shoppingCartRepository.findCartItemRowsByUserId(testUser.getId())).thenReturn(rows);
+        when(shoppingCartMapper.toDto(rows)).thenReturn(expectedDto);
 
         // When
         ShoppingCartDto result = shoppingCartService.addBookToShoppingCart(testUser, requestDto);
@@ -100,13 +107,14 @@ class ShoppingCartServiceTest {
         assertEquals(result, expectedDto);
         assertEquals(1, result.getCartItems().size());
 
-        verify(shoppingCartRepository, times(1)).findByUserId(testUser.getId());
-        verify(shoppingCartRepository, times(1)).save(userCart);
-        verify(cartItemService).createCartItem(
+        verify(shoppingCartRepository, times(1)).findIdByUserId(testUser.getId());
+        verify(cartItemService).addToCart(
+                userCart.getId(),
                 requestDto.bookId(),
-                requestDto.quantity(),
-                userCart);
-        verify(shoppingCartMapper).toDto(userCart);
+                requestDto.quantity());
+        verify(shoppingCartRepository, never()).save(any());
+        verify(shoppingCartRepository, never()).findByUserId(any());
+        verify(shoppingCartMapper).toDto(rows);
     }
 
     @Test
@@ -120,11 +128,14 @@ class ShoppingCartServiceTest {
         ShoppingCartDto expectedDto = new ShoppingCartDto(
                 userCart.getId(),
                 testUser.getId(),
-                Set.of()
+                Set.of(),
+                BigDecimal.ZERO
         );
+        List<CartItemRow> rows = List.of(new CartItemRow(userCart.getId(), testUser.getId(),
+                null, null, null, null, null));
 
-        when(shoppingCartRepository.findByUserId(testUser.getId())).thenReturn(Optional.of(userCart));
-        when(shoppingCartMapper.toDto(userCart)).thenReturn(expectedDto);
+        when(shoppingCartRepository.findCartItemRowsByUserId(testUser.getId())).thenReturn(rows);
+        when(shoppingCartMapper.toDto(rows)).thenReturn(expectedDto);
 
         // When
         ShoppingCartDto result = shoppingCartService.getShoppingCart(testUser);
@@ -133,8 +144,8 @@ class ShoppingCartServiceTest {
         assertNotNull(result);
         assertEquals(result, expectedDto);
 
-        verify(shoppingCartRepository, times(1)).findByUserId(testUser.getId());
-        verify(shoppingCartMapper).toDto(userCart);
+        verify(shoppingCartRepository, times(1)).findCartItemRowsByUserId(testUser.getId());
+        verify(shoppingCartMapper).toDto(rows);
     }
 
     @Test
@@ -147,13 +158,13 @@ class ShoppingCartServiceTest {
         user.setId(userId);
         user.setEmail("user@example.com");
 
-        when(shoppingCartRepository.findByUserId(userId)).thenReturn(Optional.empty());
+        when(shoppingCartRepository.findCartItemRowsByUserId(userId)).thenReturn(List.of());
 
         // When & Then
         assertThrows(EntityNotFoundException.class,
                 () -> shoppingCartService.getShoppingCart(user));
 
-        verify(shoppingCartRepository, times(1)).findByUserId(userId);
+        verify(shoppingCartRepository, times(1)).findCartItemRowsByUserId(userId);
     }
 
     @Test
@@ -197,7 +208,7 @@ class ShoppingCartServiceTest {
         shoppingCartService.clearShoppingCart(shoppingCart);
 
         // Then
-        verify(cartItemService, times(1)).deleteAllCartItems(cartItems);
+        verify(cartItemService, times(1)).deleteAllByShoppingCartId(shoppingCart.getId());
         verifyNoMoreInteractions(cartItemService);
     }
 }
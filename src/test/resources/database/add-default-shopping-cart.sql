@@ -8,5 +8,8 @@ VALUES (1, 'Test Book Title', 19.99, 'Test Author', '1234567890121', false);
 INSERT INTO shopping_carts (id, user_id)
 VALUES (1, 1);
 
-INSERT INTO cart_items (id, shopping_cart_id, book_id, quantity)
-VALUES (1, 1, 1, 2);
+INSERT INTO cart_items (id, shopping_cart_id, book_id, quantity, last_modified)
+VALUES (1, 1, 1, 2, CURRENT_TIMESTAMP);
+
+-- keep generated cart item ids clear of the explicit ids above
+ALTER SEQUENCE cart_items_seq RESTART WITH 1001;
@@ -5,3 +5,6 @@ DELETE FROM shopping_carts;
 DELETE FROM books;
 
 DELETE FROM users;
+
+-- the cart fixture inserts explicit book ids; restart the identity for later fixtures
+ALTER TABLE books ALTER COLUMN id RESTART WITH 1;
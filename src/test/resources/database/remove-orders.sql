@@ -0,0 +1,15 @@
+DELETE FROM order_request_items;
+
+DELETE FROM order_events;
+
+DELETE FROM order_requests;
+
+DELETE FROM idempotency_keys;
+
+DELETE FROM stock_reservations;
+
+DELETE FROM inventory_stripes;
+
+DELETE FROM order_items;
+
+DELETE FROM orders;